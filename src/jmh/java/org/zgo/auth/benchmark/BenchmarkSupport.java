@@ -0,0 +1,91 @@
+package org.zgo.auth.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.zgo.auth.JwtAuthenticationHexagonalApplication;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.JwtService;
+import org.zgo.auth.infrastructure.service.VerifiedTokenCache;
+import org.zgo.auth.infrastructure.service.key.JwtKeyRing;
+import org.zgo.auth.infrastructure.service.key.PemKeys;
+import org.zgo.auth.infrastructure.service.key.SigningKey;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Shared fixtures for the JMH benchmarks: services wired by hand, or a full application context when
+ * persistence is involved.
+ */
+final class BenchmarkSupport {
+
+    // Command-line arguments win over application.yml, which logs every SQL statement at DEBUG
+    private static final String[] QUIET_LOGGING = {
+            "--logging.level.root=WARN",
+            "--logging.level.org.zgo.auth=WARN",
+            "--logging.level.org.springframework.security=WARN",
+            "--logging.level.org.springframework.web=WARN",
+            "--logging.level.org.hibernate.SQL=WARN",
+            "--logging.level.org.hibernate.type.descriptor.sql.BasicBinder=WARN"
+    };
+
+    private BenchmarkSupport() {
+    }
+
+    static SecurityProperties securityProperties() {
+        return new SecurityProperties();
+    }
+
+    static JwtService jwtService(SecurityProperties properties) {
+        return jwtService(properties, new SimpleMeterRegistry());
+    }
+
+    static JwtService jwtService(SecurityProperties properties, MeterRegistry meterRegistry) {
+        JwtKeyRing keyRing = new JwtKeyRing(properties, new DefaultResourceLoader());
+        keyRing.init();
+        JwtService jwtService = new JwtService(
+                properties,
+                keyRing,
+                new VerifiedTokenCache(properties, meterRegistry),
+                meterRegistry
+        );
+        jwtService.init();
+        return jwtService;
+    }
+
+    /**
+     * Generates a key pair for the configured algorithm and points the properties at temporary PEM files.
+     */
+    static void useGeneratedKeys(SecurityProperties properties) throws Exception {
+        SecurityProperties.SigningAlgorithm algorithm = properties.getJwt().getAlgorithm();
+        SigningKey key = SigningKey.generate("bench", algorithm);
+
+        Path privatePem = Files.createTempFile("bench-" + algorithm, ".key.pem");
+        Path publicPem = Files.createTempFile("bench-" + algorithm, ".pub.pem");
+        Files.writeString(privatePem, PemKeys.toPem("PRIVATE KEY", key.privateKey().getEncoded()));
+        Files.writeString(publicPem, PemKeys.toPem("PUBLIC KEY", key.publicKey().getEncoded()));
+        privatePem.toFile().deleteOnExit();
+        publicPem.toFile().deleteOnExit();
+
+        properties.getJwt().setPrivateKeyPath(privatePem.toUri().toString());
+        properties.getJwt().setPublicKeyPath(publicPem.toUri().toString());
+    }
+
+    /**
+     * Starts the application on a random port with quiet logging. Extra arguments use the
+     * {@code --property=value} form.
+     */
+    static ConfigurableApplicationContext startApplication(String... extraArgs) {
+        List<String> args = new ArrayList<>(Arrays.asList(QUIET_LOGGING));
+        args.add("--server.port=0");
+        args.addAll(Arrays.asList(extraArgs));
+        return new SpringApplicationBuilder(JwtAuthenticationHexagonalApplication.class)
+                .run(args.toArray(new String[0]));
+    }
+}
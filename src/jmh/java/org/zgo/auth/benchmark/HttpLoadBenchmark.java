@@ -0,0 +1,120 @@
+package org.zgo.auth.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end /login, /refresh and /me over HTTP with many concurrent clients, on Tomcat's platform thread
+ * pool versus virtual threads (spring.threads.virtual.enabled). Each JMH thread is one client with its own user.
+ * BCrypt runs at strength 4 so that /login measures request handling rather than hashing.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(256)
+@Fork(1)
+public class HttpLoadBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkSupport.startApplication(
+                "--spring.threads.virtual.enabled=" + virtualThreads,
+                "--security.password-encoder-strength=4",
+                "--security.password-hashing.queue-capacity=1024",
+                // every client logs in from localhost, many times per second
+                "--security.login-rate-limit.enabled=false");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port + "/api/auth";
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Client {
+        String username;
+        String accessToken;
+        String refreshToken;
+
+        @Setup
+        public void register(HttpLoadBenchmark benchmark) throws Exception {
+            username = "load-" + UUID.randomUUID();
+            JsonNode tokens = benchmark.post("/register", """
+                    {"username":"%s","email":"%s@example.com","password":"password","roles":["USER"]}"""
+                    .formatted(username, username));
+            accessToken = tokens.get("accessToken").asText();
+            refreshToken = tokens.get("refreshToken").asText();
+        }
+    }
+
+    @Benchmark
+    public JsonNode login(Client c) throws Exception {
+        return post("/login", """
+                {"username":"%s","password":"password"}""".formatted(c.username));
+    }
+
+    @Benchmark
+    public JsonNode refresh(Client c) throws Exception {
+        JsonNode tokens = post("/refresh", """
+                {"refreshToken":"%s"}""".formatted(c.refreshToken));
+        // each refresh token is single use
+        c.refreshToken = tokens.get("refreshToken").asText();
+        return tokens;
+    }
+
+    @Benchmark
+    public int me(Client c) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/me"))
+                .header("Authorization", "Bearer " + c.accessToken)
+                .GET()
+                .build();
+        return check(client.send(request, HttpResponse.BodyHandlers.discarding())).statusCode();
+    }
+
+    private JsonNode post(String path, String json) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json))
+                .build();
+        return MAPPER.readTree(check(client.send(request, HttpResponse.BodyHandlers.ofString())).body());
+    }
+
+    private static <T> HttpResponse<T> check(HttpResponse<T> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.request().uri() + " answered " + response.statusCode());
+        }
+        return response;
+    }
+}
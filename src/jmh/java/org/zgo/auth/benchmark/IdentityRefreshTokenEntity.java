@@ -0,0 +1,46 @@
+package org.zgo.auth.benchmark;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.Instant;
+
+/**
+ * Copy of the refresh token mapping with the former IDENTITY ids, the baseline of {@link InsertBenchmark}.
+ * Hibernate must run each IDENTITY insert at once to read the generated id, so these inserts are never batched.
+ */
+@Entity
+@Table(name = "refresh_tokens_identity")
+public class IdentityRefreshTokenEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "token_hash", length = 32, nullable = false)
+    private byte[] tokenHash;
+
+    private String username;
+
+    private Instant expiresAt;
+
+    private boolean revoked;
+
+    private Instant revokedAt;
+
+    protected IdentityRefreshTokenEntity() {
+    }
+
+    IdentityRefreshTokenEntity(byte[] tokenHash, String username, Instant expiresAt) {
+        this.tokenHash = tokenHash;
+        this.username = username;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,160 @@
+package org.zgo.auth.benchmark;
+
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zgo.auth.application.port.in.RefreshTokenUseCase;
+import org.zgo.auth.domain.model.RefreshToken;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.User;
+import org.zgo.auth.infrastructure.persistence.adapter.RefreshTokenPersistenceAdapter;
+import org.zgo.auth.infrastructure.persistence.adapter.UserPersistenceAdapter;
+import org.zgo.auth.infrastructure.persistence.entity.RefreshTokenEntity;
+import org.zgo.auth.infrastructure.persistence.repository.RefreshTokenRepository;
+import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
+import org.zgo.auth.infrastructure.util.TokenDigests;
+
+import java.time.Instant;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Refresh-token and user inserts against the in-memory H2 database, on pooled sequence ids with JDBC batching
+ * off ({@code batchSize=1}) and on. The {@code persist...Identity} benchmarks insert the same refresh token rows
+ * with the former IDENTITY ids ({@link IdentityRefreshTokenEntity}), which Hibernate never batches: they are
+ * the baseline for the matching {@code persist} benchmarks. The bulk benchmarks insert {@link #ROWS} rows in
+ * one transaction; throughput is in transactions.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBenchmark {
+
+    private static final int ROWS = 50;
+
+    @Param({"1", "50"})
+    public int batchSize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private ConfigurableApplicationContext context;
+    private RefreshTokenUseCase refreshTokenUseCase;
+    private RefreshTokenPersistenceAdapter refreshTokenAdapter;
+    private UserPersistenceAdapter userAdapter;
+    private TransactionTemplate transaction;
+    private EntityManager entityManager;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkSupport.startApplication(
+                "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize);
+        refreshTokenUseCase = context.getBean(RefreshTokenUseCase.class);
+        refreshTokenAdapter = context.getBean(RefreshTokenPersistenceAdapter.class);
+        userAdapter = context.getBean(UserPersistenceAdapter.class);
+        transaction = context.getBean(TransactionTemplate.class);
+        // shared proxy: binds to the transaction of the calling thread
+        entityManager = context.getBean(EntityManager.class);
+    }
+
+    // keep the in-memory tables small between iterations
+    @TearDown(Level.Iteration)
+    public void clear() {
+        context.getBean(RefreshTokenRepository.class).deleteAllInBatch();
+        context.getBean(UserRepository.class).deleteAllInBatch();
+        transaction.executeWithoutResult(status ->
+                entityManager.createQuery("delete from IdentityRefreshTokenEntity").executeUpdate());
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    /**
+     * One token per transaction, as issued by login and refresh.
+     */
+    @Benchmark
+    public RefreshToken createRefreshToken() {
+        return refreshTokenUseCase.createRefreshToken("bench");
+    }
+
+    @Benchmark
+    public int bulkRefreshTokens() {
+        return transaction.execute(status -> {
+            Instant expiresAt = Instant.now().plusSeconds(3600);
+            for (int i = 0; i < ROWS; i++) {
+                RefreshToken rt = new RefreshToken();
+                rt.setToken(UUID.randomUUID().toString());
+                rt.setUsername("bench");
+                rt.setExpiresAt(expiresAt);
+                refreshTokenAdapter.save(rt);
+            }
+            return ROWS;
+        });
+    }
+
+    /**
+     * The persist benchmarks skip the adapter, so the id strategy is the only difference between the pairs.
+     */
+    @Benchmark
+    public Object persistRefreshToken() {
+        return persistInOneTransaction(1, this::sequenceToken);
+    }
+
+    @Benchmark
+    public Object persistRefreshTokenIdentity() {
+        return persistInOneTransaction(1, this::identityToken);
+    }
+
+    @Benchmark
+    public Object bulkPersistRefreshTokens() {
+        return persistInOneTransaction(ROWS, this::sequenceToken);
+    }
+
+    @Benchmark
+    public Object bulkPersistRefreshTokensIdentity() {
+        return persistInOneTransaction(ROWS, this::identityToken);
+    }
+
+    @Benchmark
+    public int bulkUsers() {
+        return transaction.execute(status -> {
+            for (int i = 0; i < ROWS; i++) {
+                String name = "bench-" + sequence.incrementAndGet();
+                userAdapter.save(new User(null, name, name + "@example.com", "{noop}secret", Set.of(Role.ROLE_USER)));
+            }
+            return ROWS;
+        });
+    }
+
+    private Object persistInOneTransaction(int rows, Function<Instant, Object> token) {
+        return transaction.execute(status -> {
+            Instant expiresAt = Instant.now().plusSeconds(3600);
+            Object last = null;
+            for (int i = 0; i < rows; i++) {
+                last = token.apply(expiresAt);
+                entityManager.persist(last);
+            }
+            return last;
+        });
+    }
+
+    private Object sequenceToken(Instant expiresAt) {
+        RefreshTokenEntity e = new RefreshTokenEntity();
+        e.setTokenHash(TokenDigests.sha256(UUID.randomUUID().toString()));
+        e.setUsername("bench");
+        e.setExpiresAt(expiresAt);
+        return e;
+    }
+
+    private Object identityToken(Instant expiresAt) {
+        return new IdentityRefreshTokenEntity(TokenDigests.sha256(UUID.randomUUID().toString()), "bench", expiresAt);
+    }
+}
@@ -0,0 +1,127 @@
+package org.zgo.auth.benchmark;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.zgo.auth.application.port.out.UserPersistencePort;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.UserConflict;
+import org.zgo.auth.domain.model.UserCredentials;
+import org.zgo.auth.infrastructure.config.filter.JwtAuthenticationFilter;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.AccessTokenDenylist;
+import org.zgo.auth.infrastructure.service.JwtService;
+import org.zgo.auth.infrastructure.service.UserDetailsServiceImpl;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One full pass of the JWT filter over a mock request carrying a valid bearer token.
+ * The user store is an in-memory stub so only the filter's own cost is measured.
+ * With {@code metrics=false} every meter is denied, which gives the overhead of the timers and counters.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    @Param({"DATABASE", "STATELESS"})
+    public SecurityProperties.AuthenticationMode authenticationMode;
+
+    @Param({"false", "true"})
+    public boolean verificationCache;
+
+    @Param({"false", "true"})
+    public boolean metrics;
+
+    private JwtAuthenticationFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private final FilterChain chain = (req, res) -> { };
+
+    @Setup
+    public void setup() {
+        SecurityProperties properties = BenchmarkSupport.securityProperties();
+        properties.setAuthenticationMode(authenticationMode);
+        properties.getJwt().getVerificationCache().setEnabled(verificationCache);
+        MeterRegistry meterRegistry = new SimpleMeterRegistry();
+        if (!metrics) {
+            // denied meters are no-ops
+            meterRegistry.config().meterFilter(MeterFilter.deny());
+        }
+        JwtService jwtService = BenchmarkSupport.jwtService(properties, meterRegistry);
+
+        org.zgo.auth.domain.model.User user = new org.zgo.auth.domain.model.User(
+                1L, "bench", "bench@example.com", "{noop}secret", Set.of(Role.ROLE_USER));
+        UserDetailsServiceImpl userDetailsService = new UserDetailsServiceImpl(new InMemoryUserPort(user));
+        // Other tokens revoked, so the denylist pre-filter is not trivially empty
+        AccessTokenDenylist denylist = new AccessTokenDenylist(properties, meterRegistry);
+        for (int i = 0; i < 1000; i++) {
+            denylist.revoke(UUID.randomUUID().toString(), Instant.now().plusSeconds(900));
+        }
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, denylist, properties, meterRegistry);
+
+        UserDetails principal = new User("bench", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        String token = jwtService.generateToken(principal, Map.of());
+
+        request = new MockHttpServletRequest("GET", "/api/auth/me");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public Object doFilter() throws Exception {
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, response, chain);
+        return SecurityContextHolder.getContext().getAuthentication();
+    }
+
+    private record InMemoryUserPort(org.zgo.auth.domain.model.User user) implements UserPersistencePort {
+
+        @Override
+        public org.zgo.auth.domain.model.User save(org.zgo.auth.domain.model.User u) {
+            return u;
+        }
+
+        @Override
+        public Optional<org.zgo.auth.domain.model.User> findByUsername(String username) {
+            return user.getUsername().equals(username) ? Optional.of(user) : Optional.empty();
+        }
+
+        @Override
+        public Optional<org.zgo.auth.domain.model.User> findByEmail(String email) {
+            return user.getEmail().equals(email) ? Optional.of(user) : Optional.empty();
+        }
+
+        @Override
+        public Optional<UserCredentials> findCredentialsByUsername(String username) {
+            return findByUsername(username)
+                    .map(u -> new UserCredentials(u.getUsername(), u.getPassword(), Role.toBits(u.getRoles())));
+        }
+
+        @Override
+        public Optional<UserConflict> findConflict(String username, String email) {
+            if (user.getUsername().equals(username)) {
+                return Optional.of(UserConflict.USERNAME);
+            }
+            return user.getEmail().equals(email) ? Optional.of(UserConflict.EMAIL) : Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.zgo.auth.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.JwtService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Access token issuance and verification throughput, with and without the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+
+    @Param({"false", "true"})
+    public boolean verificationCache;
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() {
+        SecurityProperties properties = BenchmarkSupport.securityProperties();
+        properties.getJwt().getVerificationCache().setEnabled(verificationCache);
+        jwtService = BenchmarkSupport.jwtService(properties);
+        userDetails = new User("bench", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtService.generateToken(userDetails, Map.of());
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(userDetails, Map.of());
+    }
+
+    @Benchmark
+    public boolean isTokenValid() {
+        return jwtService.isTokenValid(token, userDetails);
+    }
+
+    @Benchmark
+    public String extractUsername() {
+        return jwtService.extractUsername(token);
+    }
+}
@@ -0,0 +1,53 @@
+package org.zgo.auth.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.JwtService;
+import org.zgo.auth.infrastructure.service.VerifiedToken;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sign and verify throughput for each supported signing algorithm, using freshly generated keys
+ * (RSA-2048, EC P-256, Ed25519). The verified-token cache is disabled so every verify does the public-key math.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SigningAlgorithmBenchmark {
+
+    @Param({"RS256", "ES256", "EdDSA"})
+    public SecurityProperties.SigningAlgorithm algorithm;
+
+    private JwtService jwtService;
+    private UserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setup() throws Exception {
+        SecurityProperties properties = BenchmarkSupport.securityProperties();
+        properties.getJwt().setAlgorithm(algorithm);
+        BenchmarkSupport.useGeneratedKeys(properties);
+        jwtService = BenchmarkSupport.jwtService(properties);
+        userDetails = new User("bench", "", List.of(new SimpleGrantedAuthority("ROLE_USER")));
+        token = jwtService.generateToken(userDetails, Map.of());
+    }
+
+    @Benchmark
+    public String sign() {
+        return jwtService.generateToken(userDetails, Map.of());
+    }
+
+    @Benchmark
+    public VerifiedToken verify() {
+        return jwtService.verify(token);
+    }
+}
@@ -0,0 +1,44 @@
+package org.zgo.auth.benchmark;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.User;
+import org.zgo.auth.infrastructure.persistence.adapter.UserPersistenceAdapter;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link UserPersistenceAdapter#findByUsername} against the in-memory H2 database.
+ * The adapter is used directly, so the user cache is bypassed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserPersistenceBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private UserPersistenceAdapter adapter;
+
+    @Setup
+    public void setup() {
+        context = BenchmarkSupport.startApplication();
+        adapter = context.getBean(UserPersistenceAdapter.class);
+        adapter.save(new User(null, "bench", "bench@example.com", "{noop}secret", Set.of(Role.ROLE_USER)));
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<User> findByUsername() {
+        return adapter.findByUsername("bench");
+    }
+}
@@ -11,4 +11,9 @@ public interface AuthUseCase {
     AuthenticationResponse login(LoginRequest request);
 
     AuthenticationResponse refreshAccessToken(RefreshTokenRequest request);
+
+    /**
+     * Rejects the access token for the rest of its lifetime. Invalid or expired tokens are ignored.
+     */
+    void revokeAccessToken(String accessToken);
 }
\ No newline at end of file
@@ -2,10 +2,25 @@ package org.zgo.auth.application.port.in;
 
 import org.zgo.auth.domain.model.RefreshToken;
 
+import java.util.Optional;
+
 public interface RefreshTokenUseCase {
     RefreshToken createRefreshToken(String username);
 
     boolean validateRefreshToken(String token);
 
     void revokeRefreshToken(String token);
+
+    /**
+     * Revokes every live refresh token of the user (logout everywhere).
+     *
+     * @return number of tokens revoked
+     */
+    int revokeAllForUser(String username);
+
+    /**
+     * Revokes the token and issues a new one for the same user, atomically.
+     * Empty if the token is unknown, revoked or expired, including when a concurrent rotation won.
+     */
+    Optional<RefreshToken> rotateRefreshToken(String token);
 }
\ No newline at end of file
@@ -2,7 +2,9 @@ package org.zgo.auth.application.port.out;
 
 import org.zgo.auth.domain.model.RefreshToken;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.function.Function;
 
 public interface RefreshTokenPersistencePort {
     RefreshToken save(RefreshToken refreshToken);
@@ -10,4 +12,32 @@ public interface RefreshTokenPersistencePort {
     Optional<RefreshToken> findByToken(String token);
 
     void delete(RefreshToken refreshToken);
+
+    /**
+     * Marks the token revoked if it is neither revoked nor expired at {@code now}.
+     *
+     * @return the token owner when this call revoked it; empty otherwise
+     */
+    Optional<String> revokeIfActive(String token, Instant now);
+
+    /**
+     * {@link #revokeIfActive} and, if it succeeded, saves the replacement built for the owner, atomically.
+     *
+     * @return the saved replacement; empty if the token was not active
+     */
+    Optional<RefreshToken> rotate(String token, Instant now, Function<String, RefreshToken> replacement);
+
+    /**
+     * Marks every token of the user that is neither revoked nor expired at {@code now} as revoked.
+     *
+     * @return number of tokens revoked
+     */
+    int revokeAllForUser(String username, Instant now);
+
+    /**
+     * Deletes up to {@code limit} tokens that expired, or were revoked, before {@code cutoff}.
+     *
+     * @return number of tokens deleted; less than {@code limit} once nothing is left to purge
+     */
+    int deleteExpired(Instant cutoff, int limit);
 }
\ No newline at end of file
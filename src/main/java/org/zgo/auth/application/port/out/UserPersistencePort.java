@@ -1,6 +1,8 @@
 package org.zgo.auth.application.port.out;
 
 import org.zgo.auth.domain.model.User;
+import org.zgo.auth.domain.model.UserConflict;
+import org.zgo.auth.domain.model.UserCredentials;
 
 import java.util.Optional;
 
@@ -10,4 +12,11 @@ public interface UserPersistencePort {
     Optional<User> findByUsername(String username);
 
     Optional<User> findByEmail(String email);
+
+    Optional<UserCredentials> findCredentialsByUsername(String username);
+
+    /**
+     * Checks both unique fields in one lookup, without loading the users.
+     */
+    Optional<UserConflict> findConflict(String username, String email);
 }
\ No newline at end of file
@@ -8,64 +8,63 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.zgo.auth.application.port.in.AuthUseCase;
 import org.zgo.auth.application.port.in.RefreshTokenUseCase;
-import org.zgo.auth.application.port.out.RefreshTokenPersistencePort;
 import org.zgo.auth.application.port.out.UserPersistencePort;
 import org.zgo.auth.domain.exception.custom.InvalidCredentialsException;
+import org.zgo.auth.domain.exception.custom.ServiceUnavailableException;
 import org.zgo.auth.domain.exception.custom.UserAlreadyExistsException;
 import org.zgo.auth.domain.model.RefreshToken;
 import org.zgo.auth.domain.model.Role;
 import org.zgo.auth.domain.model.User;
+import org.zgo.auth.domain.model.UserConflict;
 import org.zgo.auth.infrastructure.web.dto.request.LoginRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RefreshTokenRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RegisterRequest;
 import org.zgo.auth.infrastructure.web.dto.response.AuthenticationResponse;
+import org.zgo.auth.infrastructure.service.AccessTokenDenylist;
 import org.zgo.auth.infrastructure.service.JwtService;
 import org.zgo.auth.infrastructure.service.UserDetailsServiceImpl;
+import org.zgo.auth.infrastructure.service.VerifiedToken;
 
-import java.time.Instant;
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Map;
-import java.util.Set;
 
 @Service
 public class AuthServiceImpl implements AuthUseCase {
 
     private final UserPersistencePort userPersistence;
-    private final RefreshTokenPersistencePort refreshTokenPersistence;
     private final RefreshTokenUseCase refreshTokenUseCase;
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final AccessTokenDenylist accessTokenDenylist;
 
     public AuthServiceImpl(UserPersistencePort userPersistence,
-                           RefreshTokenPersistencePort refreshTokenPersistence,
                            RefreshTokenUseCase refreshTokenUseCase,
                            PasswordEncoder passwordEncoder,
                            AuthenticationManager authenticationManager,
                            JwtService jwtService,
-                           UserDetailsServiceImpl userDetailsService) {
+                           UserDetailsServiceImpl userDetailsService,
+                           AccessTokenDenylist accessTokenDenylist) {
         this.userPersistence = userPersistence;
-        this.refreshTokenPersistence = refreshTokenPersistence;
         this.refreshTokenUseCase = refreshTokenUseCase;
         this.passwordEncoder = passwordEncoder;
         this.authenticationManager = authenticationManager;
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.accessTokenDenylist = accessTokenDenylist;
     }
 
     @Override
     public AuthenticationResponse register(RegisterRequest request) {
-        userPersistence.findByUsername(request.getUsername()).ifPresent(u -> {
-            throw new UserAlreadyExistsException("username already exists");
+        // one projection query before hashing; a race past this check is caught by the unique constraints on save
+        userPersistence.findConflict(request.getUsername(), request.getEmail()).ifPresent(conflict -> {
+            throw new UserAlreadyExistsException(conflict == UserConflict.USERNAME
+                    ? "username already exists"
+                    : "email already exists");
         });
 
-        userPersistence.findByEmail(request.getEmail()).ifPresent(u -> {
-            throw new UserAlreadyExistsException("email already exists");
-        });
-
-        Set<Role> roles = new HashSet<>();
-        roles.add(Role.ROLE_USER);
+        EnumSet<Role> roles = EnumSet.of(Role.ROLE_USER);
         if (request.getRoles() != null && request.getRoles().contains("ADMIN")) {
             roles.add(Role.ROLE_ADMIN);
         }
@@ -78,7 +77,7 @@ public class AuthServiceImpl implements AuthUseCase {
 
         User saved = userPersistence.save(user);
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(saved.getUsername());
+        UserDetails userDetails = UserDetailsServiceImpl.toUserDetails(saved);
         String accessToken = jwtService.generateToken(userDetails, Map.of());
         RefreshToken refreshToken = refreshTokenUseCase.createRefreshToken(saved.getUsername());
 
@@ -87,15 +86,19 @@ public class AuthServiceImpl implements AuthUseCase {
 
     @Override
     public AuthenticationResponse login(LoginRequest request) {
+        Authentication auth;
         try {
-            Authentication auth = authenticationManager.authenticate(
+            auth = authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(request.getUsername(), request.getPassword())
             );
+        } catch (ServiceUnavailableException ex) {
+            throw ex;
         } catch (Exception ex) {
             throw new InvalidCredentialsException("Invalid username or password");
         }
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(request.getUsername());
+        // loaded by the provider during authentication (and re-encoded if needed), no second lookup
+        UserDetails userDetails = (UserDetails) auth.getPrincipal();
         String accessToken = jwtService.generateToken(userDetails, Map.of());
         RefreshToken refreshToken = refreshTokenUseCase.createRefreshToken(userDetails.getUsername());
 
@@ -104,20 +107,26 @@ public class AuthServiceImpl implements AuthUseCase {
 
     @Override
     public AuthenticationResponse refreshAccessToken(RefreshTokenRequest request) {
-        RefreshToken rt = refreshTokenPersistence.findByToken(request.getRefreshToken())
-                .orElseThrow(() -> new InvalidCredentialsException("Invalid refresh token"));
-
-        if (rt.isRevoked() || rt.getExpiresAt().isBefore(Instant.now())) {
-            throw new InvalidCredentialsException("Refresh token is invalid or expired");
-        }
-
-        // rotate: revoke old and create a new refresh token
-        refreshTokenUseCase.revokeRefreshToken(rt.getToken());
-        RefreshToken newRt = refreshTokenUseCase.createRefreshToken(rt.getUsername());
+        // rotate: revoke old and create a new refresh token in one transaction
+        RefreshToken newRt = refreshTokenUseCase.rotateRefreshToken(request.getRefreshToken())
+                .orElseThrow(() -> new InvalidCredentialsException("Refresh token is invalid or expired"));
 
-        UserDetails userDetails = userDetailsService.loadUserByUsername(rt.getUsername());
+        // current roles, not the ones at login: a cache hit when the user cache is enabled, one query otherwise
+        UserDetails userDetails = userDetailsService.loadUserByUsername(newRt.getUsername());
         String accessToken = jwtService.generateToken(userDetails, Map.of());
 
         return new AuthenticationResponse(accessToken, newRt.getToken());
     }
-}
\ No newline at end of file
+
+    @Override
+    public void revokeAccessToken(String accessToken) {
+        VerifiedToken token;
+        try {
+            token = jwtService.verify(accessToken);
+        } catch (Exception ex) {
+            // already unusable
+            return;
+        }
+        accessTokenDenylist.revoke(token.id(), token.expiresAt());
+    }
+}
@@ -7,6 +7,7 @@ import org.zgo.auth.domain.model.RefreshToken;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 import java.util.UUID;
 
 @Service
@@ -20,12 +21,7 @@ public class RefreshTokenServiceImpl implements RefreshTokenUseCase {
 
     @Override
     public RefreshToken createRefreshToken(String username) {
-        RefreshToken rt = new RefreshToken();
-        rt.setToken(UUID.randomUUID().toString());
-        rt.setUsername(username);
-        rt.setExpiresAt(Instant.now().plus(30, ChronoUnit.DAYS));
-        rt.setRevoked(false);
-        return persistence.save(rt);
+        return persistence.save(newRefreshToken(username));
     }
 
     @Override
@@ -39,7 +35,29 @@ public class RefreshTokenServiceImpl implements RefreshTokenUseCase {
     public void revokeRefreshToken(String token) {
         persistence.findByToken(token).ifPresent(rt -> {
             rt.setRevoked(true);
+            rt.setRevokedAt(Instant.now());
             persistence.save(rt);
         });
     }
-}
\ No newline at end of file
+
+    @Override
+    public int revokeAllForUser(String username) {
+        return persistence.revokeAllForUser(username, Instant.now());
+    }
+
+    @Override
+    public Optional<RefreshToken> rotateRefreshToken(String token) {
+        // the conditional update is the compare-and-set: only one concurrent rotation can revoke the token;
+        // the port commits it together with the replacement
+        return persistence.rotate(token, Instant.now(), this::newRefreshToken);
+    }
+
+    private RefreshToken newRefreshToken(String username) {
+        RefreshToken rt = new RefreshToken();
+        rt.setToken(UUID.randomUUID().toString());
+        rt.setUsername(username);
+        rt.setExpiresAt(Instant.now().plus(30, ChronoUnit.DAYS));
+        rt.setRevoked(false);
+        return rt;
+    }
+}
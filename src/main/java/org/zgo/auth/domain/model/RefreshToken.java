@@ -8,6 +8,7 @@ public class RefreshToken {
     private String username;
     private Instant expiresAt;
     private boolean revoked;
+    private Instant revokedAt;
 
     public RefreshToken() {
     }
@@ -59,4 +60,12 @@ public class RefreshToken {
     public void setRevoked(boolean revoked) {
         this.revoked = revoked;
     }
-}
\ No newline at end of file
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
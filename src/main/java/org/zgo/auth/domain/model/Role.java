@@ -1,6 +1,42 @@
 package org.zgo.auth.domain.model;
 
+import java.util.EnumSet;
+import java.util.Set;
+
 public enum Role {
-    ROLE_USER,
-    ROLE_ADMIN
-}
\ No newline at end of file
+    // Persisted in users.role_bits: a bit is never reused or changed once assigned
+    ROLE_USER(1),
+    ROLE_ADMIN(1 << 1),
+    // Service accounts (resource servers, gateways, back office); never granted by /register
+    ROLE_SERVICE(1 << 2);
+
+    private static final Role[] VALUES = values();
+
+    private final int bit;
+
+    Role(int bit) {
+        this.bit = bit;
+    }
+
+    public int bit() {
+        return bit;
+    }
+
+    public static int toBits(Set<Role> roles) {
+        int bits = 0;
+        for (Role role : roles) {
+            bits |= role.bit();
+        }
+        return bits;
+    }
+
+    public static EnumSet<Role> fromBits(int bits) {
+        EnumSet<Role> roles = EnumSet.noneOf(Role.class);
+        for (Role role : VALUES) {
+            if ((bits & role.bit()) != 0) {
+                roles.add(role);
+            }
+        }
+        return roles;
+    }
+}
@@ -1,5 +1,6 @@
 package org.zgo.auth.domain.model;
 
+import java.util.EnumSet;
 import java.util.Set;
 
 public class User {
@@ -7,7 +8,7 @@ public class User {
     private String username;
     private String email;
     private String password;
-    private Set<Role> roles;
+    private EnumSet<Role> roles = EnumSet.noneOf(Role.class);
 
     // Constructors, getters, setters
     public User() {
@@ -18,7 +19,7 @@ public class User {
         this.username = username;
         this.email = email;
         this.password = password;
-        this.roles = roles;
+        setRoles(roles);
     }
 
     public Long getId() {
@@ -58,6 +59,6 @@ public class User {
     }
 
     public void setRoles(Set<Role> roles) {
-        this.roles = roles;
+        this.roles = roles.isEmpty() ? EnumSet.noneOf(Role.class) : EnumSet.copyOf(roles);
     }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package org.zgo.auth.domain.model;
+
+/**
+ * Which unique field of a new user is already taken.
+ */
+public enum UserConflict {
+    USERNAME,
+    EMAIL
+}
@@ -0,0 +1,13 @@
+package org.zgo.auth.domain.model;
+
+import java.util.EnumSet;
+
+/**
+ * What authentication needs from a user: no id, no email, and the roles as the bitmask they are stored in.
+ */
+public record UserCredentials(String username, String password, int roleBits) {
+
+    public EnumSet<Role> roles() {
+        return Role.fromBits(roleBits);
+    }
+}
@@ -0,0 +1,12 @@
+package org.zgo.auth.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables the background jobs (key rotation, maintenance tasks) declared with @Scheduled.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
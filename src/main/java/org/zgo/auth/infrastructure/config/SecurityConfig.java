@@ -1,5 +1,6 @@
 package org.zgo.auth.infrastructure.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -24,6 +25,9 @@ import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.zgo.auth.infrastructure.config.filter.JwtAuthenticationFilter;
 import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
 import org.zgo.auth.infrastructure.service.UserDetailsServiceImpl;
+import org.zgo.auth.infrastructure.service.password.CalibratedBCryptPasswordEncoder;
+import org.zgo.auth.infrastructure.service.password.OffloadingPasswordEncoder;
+import org.zgo.auth.infrastructure.service.password.TimedPasswordEncoder;
 
 import java.util.Arrays;
 import java.util.List;
@@ -53,14 +57,26 @@ public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
     private final JwtAuthenticationEntryPoint authenticationEntryPoint;
     private final SecurityProperties securityProperties;
+    private final MeterRegistry meterRegistry;
 
     /**
      * Password encoder bean using BCrypt.
-     * Strength is configurable via application.yml
+     * Strength is configurable via application.yml or calibrated at startup; hashing runs on a bounded
+     * executor unless disabled.
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder(securityProperties.getPasswordEncoderStrength());
+        SecurityProperties.PasswordCostCalibration calibration = securityProperties.getPasswordCostCalibration();
+        PasswordEncoder bcrypt = calibration.isEnabled()
+                ? new CalibratedBCryptPasswordEncoder(CalibratedBCryptPasswordEncoder.calibrate(
+                        calibration.getTargetLatency(), calibration.getMinStrength(), calibration.getMaxStrength()))
+                : new BCryptPasswordEncoder(securityProperties.getPasswordEncoderStrength());
+        // timed inside the executor, so the timer measures hashing alone and not the queue wait
+        PasswordEncoder timed = new TimedPasswordEncoder(bcrypt, meterRegistry);
+        if (!securityProperties.getPasswordHashing().isEnabled()) {
+            return timed;
+        }
+        return new OffloadingPasswordEncoder(timed, securityProperties.getPasswordHashing(), meterRegistry);
     }
 
     /**
@@ -72,6 +88,10 @@ public class SecurityConfig {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
         provider.setUserDetailsService(userDetailsService);
         provider.setPasswordEncoder(passwordEncoder());
+        if (securityProperties.getPasswordCostCalibration().isEnabled()) {
+            // Rehash on successful login when the stored cost differs from the calibrated strength
+            provider.setUserDetailsPasswordService(userDetailsService);
+        }
         provider.setHideUserNotFoundExceptions(false);
         return provider;
     }
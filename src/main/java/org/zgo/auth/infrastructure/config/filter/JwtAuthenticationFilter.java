@@ -1,5 +1,11 @@
 package org.zgo.auth.infrastructure.config.filter;
 
+import io.jsonwebtoken.ClaimJwtException;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.security.SecurityException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,16 +13,25 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextHolderStrategy;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.AccessTokenDenylist;
 import org.zgo.auth.infrastructure.service.JwtService;
 import org.zgo.auth.infrastructure.service.UserDetailsServiceImpl;
+import org.zgo.auth.infrastructure.service.VerifiedToken;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -26,35 +41,52 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtService jwtService;
     private final UserDetailsServiceImpl userDetailsService;
+    private final AccessTokenDenylist denylist;
+    private final boolean stateless;
+    // public, swagger and dev endpoints from SecurityProperties, the same paths the security rules permit
+    private final PathPatternTrie excludedPaths;
+    private final Timer filterTimer;
+    // one counter per verification outcome, registered up front so the hot path never looks them up
+    private final Counter validCounter;
+    private final Counter expiredCounter;
+    private final Counter badSignatureCounter;
+    private final Counter malformedCounter;
+    private final Counter invalidClaimsCounter;
+    private final Counter revokedCounter;
+    private final Counter userMissingCounter;
 
-    // Rutas que deben saltar este filtro
-    private static final List<String> EXCLUDED_PATHS = Arrays.asList(
-            // Swagger/OpenAPI
-            "/v3/api-docs",
-            "/swagger-ui",
-            "/swagger-resources",
-            "/webjars",
-            // H2 Console
-            "/h2-console",
-            // Endpoints públicos de autenticación
-            "/api/auth/register",
-            "/api/auth/login",
-            "/api/auth/refresh",
-            "/api/auth/revoke",
-            // Actuator
-            "/actuator/health",
-            "/actuator/info"
-    );
-
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsServiceImpl userDetailsService) {
+    // Resolved once; the default strategy keeps the context in a per-request ThreadLocal, which is cheap on virtual threads
+    private SecurityContextHolderStrategy securityContextHolderStrategy = SecurityContextHolder.getContextHolderStrategy();
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   UserDetailsServiceImpl userDetailsService,
+                                   AccessTokenDenylist denylist,
+                                   SecurityProperties securityProperties,
+                                   MeterRegistry meterRegistry) {
         this.jwtService = jwtService;
         this.userDetailsService = userDetailsService;
+        this.denylist = denylist;
+        this.stateless = securityProperties.getAuthenticationMode() == SecurityProperties.AuthenticationMode.STATELESS;
+        List<String> excluded = new ArrayList<>(securityProperties.getPublicEndpoints());
+        excluded.addAll(securityProperties.getSwaggerEndpoints());
+        excluded.addAll(securityProperties.getDevEndpoints());
+        this.excludedPaths = PathPatternTrie.compile(excluded);
+        this.filterTimer = Timer.builder("auth.filter")
+                .description("Time spent authenticating the bearer token, excluding the rest of the chain")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.validCounter = outcome(meterRegistry, "valid");
+        this.expiredCounter = outcome(meterRegistry, "expired");
+        this.badSignatureCounter = outcome(meterRegistry, "bad_signature");
+        this.malformedCounter = outcome(meterRegistry, "malformed");
+        this.invalidClaimsCounter = outcome(meterRegistry, "invalid_claims");
+        this.revokedCounter = outcome(meterRegistry, "revoked");
+        this.userMissingCounter = outcome(meterRegistry, "user_missing");
     }
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
-        String path = request.getRequestURI();
-        return EXCLUDED_PATHS.stream().anyMatch(path::startsWith);
+        return excludedPaths.matches(request);
     }
 
     @Override
@@ -62,39 +94,91 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
+        filterTimer.record(() -> authenticate(request));
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request) {
         try {
             final String authHeader = request.getHeader("Authorization");
             final String tokenPrefix = "Bearer ";
 
-            String jwt = null;
-            String username = null;
+            VerifiedToken token = null;
 
             if (authHeader != null && authHeader.startsWith(tokenPrefix)) {
-                jwt = authHeader.substring(tokenPrefix.length());
+                String jwt = authHeader.substring(tokenPrefix.length());
                 try {
-                    username = jwtService.extractUsername(jwt);
+                    token = jwtService.verify(jwt);
+                    if (denylist.isRevoked(token.id())) {
+                        logger.debug("Rejected revoked JWT {}", token.id());
+                        revokedCounter.increment();
+                        token = null;
+                    }
                 } catch (Exception e) {
-                    logger.error("Error extracting username from JWT: {}", e.getMessage());
+                    countFailure(e);
+                    logger.error("Error verifying JWT: {}", e.getMessage());
                 }
             }
 
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            if (token != null && securityContextHolderStrategy.getContext().getAuthentication() == null) {
                 try {
-                    UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-                    if (jwtService.isTokenValid(jwt, userDetails)) {
-                        UsernamePasswordAuthenticationToken authToken =
-                                new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                        SecurityContextHolder.getContext().setAuthentication(authToken);
-                    }
+                    UserDetails userDetails = loadPrincipal(token);
+                    UsernamePasswordAuthenticationToken authToken =
+                            new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    // a fresh context rather than mutating one that may be shared with other threads
+                    SecurityContext context = securityContextHolderStrategy.createEmptyContext();
+                    context.setAuthentication(authToken);
+                    securityContextHolderStrategy.setContext(context);
+                    // counted only now, so a token whose user is gone counts as user_missing alone
+                    validCounter.increment();
                 } catch (Exception e) {
-                    logger.error("Error validating JWT token: {}", e.getMessage());
+                    if (e instanceof UsernameNotFoundException) {
+                        userMissingCounter.increment();
+                    }
+                    logger.error("Error loading user for JWT subject: {}", e.getMessage());
                 }
             }
         } catch (Exception e) {
             logger.error("Error in JWT authentication filter: {}", e.getMessage());
         }
+    }
 
-        filterChain.doFilter(request, response);
+    private void countFailure(Exception e) {
+        if (e instanceof ExpiredJwtException) {
+            expiredCounter.increment();
+        } else if (e instanceof ClaimJwtException) {
+            // wrong issuer or audience, missing required claim, not yet valid
+            invalidClaimsCounter.increment();
+        } else if (e instanceof SecurityException) {
+            // signature does not match the key for its kid
+            badSignatureCounter.increment();
+        } else {
+            malformedCounter.increment();
+        }
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("auth.jwt.verification")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    public void setSecurityContextHolderStrategy(SecurityContextHolderStrategy securityContextHolderStrategy) {
+        this.securityContextHolderStrategy = securityContextHolderStrategy;
+    }
+
+    /**
+     * In stateless mode the principal comes straight from the verified claims; otherwise the user is loaded
+     * so that deleted users or changed roles take effect before the token expires.
+     */
+    private UserDetails loadPrincipal(VerifiedToken token) {
+        if (stateless) {
+            List<GrantedAuthority> authorities = token.roles().stream()
+                    .map(role -> (GrantedAuthority) new SimpleGrantedAuthority(role))
+                    .toList();
+            return new User(token.subject(), "", authorities);
+        }
+        return this.userDetailsService.loadUserByUsername(token.subject());
     }
 }
\ No newline at end of file
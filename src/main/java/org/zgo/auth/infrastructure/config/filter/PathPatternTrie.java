@@ -0,0 +1,112 @@
+package org.zgo.auth.infrastructure.config.filter;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.util.StringUtils;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Character trie over the request paths that skip JWT authentication, built once from the configured endpoints.
+ *
+ * Two pattern forms are supported, with the same meaning as in the security rules:
+ * {@code /exact/path} matches only that path, and {@code /prefix/**} matches {@code /prefix} and anything below
+ * it. Matching walks the path once with no allocation; lookups are a scan of each node's few child characters.
+ */
+public final class PathPatternTrie {
+
+    private static final String SUBTREE_SUFFIX = "/**";
+
+    private final Node root = new Node();
+
+    private PathPatternTrie() {
+    }
+
+    /**
+     * @throws IllegalArgumentException for a pattern with wildcards other than a trailing {@code /**}
+     */
+    public static PathPatternTrie compile(Collection<String> patterns) {
+        PathPatternTrie trie = new PathPatternTrie();
+        for (String pattern : patterns) {
+            trie.add(pattern);
+        }
+        return trie;
+    }
+
+    /**
+     * Matches the path within the application, as the security rules see it: context path removed, decoded,
+     * {@code ;} parameters stripped, {@code //} collapsed and {@code .}/{@code ..} segments resolved.
+     */
+    public boolean matches(HttpServletRequest request) {
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        return matches(path.contains("/.") ? StringUtils.cleanPath(path) : path);
+    }
+
+    /**
+     * Matches an already normalized path.
+     */
+    public boolean matches(String path) {
+        Node node = root;
+        int length = path.length();
+        for (int i = 0; i < length; i++) {
+            char c = path.charAt(i);
+            if (node.subtree && c == '/') {
+                return true;
+            }
+            node = node.child(c);
+            if (node == null) {
+                return false;
+            }
+        }
+        return node.exact || node.subtree;
+    }
+
+    private void add(String pattern) {
+        boolean subtree = pattern.endsWith(SUBTREE_SUFFIX);
+        String prefix = subtree ? pattern.substring(0, pattern.length() - SUBTREE_SUFFIX.length()) : pattern;
+        if (prefix.indexOf('*') >= 0 || prefix.indexOf('?') >= 0 || prefix.indexOf('{') >= 0) {
+            throw new IllegalArgumentException("Unsupported endpoint pattern (use /exact or /prefix/**): " + pattern);
+        }
+        Node node = root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.childOrCreate(prefix.charAt(i));
+        }
+        if (subtree) {
+            node.subtree = true;
+        } else {
+            node.exact = true;
+        }
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        // this node ends an exact pattern
+        private boolean exact;
+        // this node ends a /** pattern: matches here and at any following '/'
+        private boolean subtree;
+
+        Node child(char c) {
+            char[] k = keys;
+            for (int i = 0; i < k.length; i++) {
+                if (k[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+
+        Node childOrCreate(char c) {
+            Node child = child(c);
+            if (child == null) {
+                child = new Node();
+                keys = Arrays.copyOf(keys, keys.length + 1);
+                children = Arrays.copyOf(children, children.length + 1);
+                keys[keys.length - 1] = c;
+                children[children.length - 1] = child;
+            }
+            return child;
+        }
+    }
+}
@@ -1,13 +1,21 @@
 package org.zgo.auth.infrastructure.config.properties;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.validation.annotation.Validated;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -23,6 +31,7 @@ public class SecurityProperties {
     /**
      * JWT related properties
      */
+    @Valid
     private Jwt jwt = new Jwt();
 
     /**
@@ -32,7 +41,8 @@ public class SecurityProperties {
     private List<String> publicEndpoints = List.of(
             "/api/auth/register",
             "/api/auth/login",
-            "/api/auth/refresh"
+            "/api/auth/refresh",
+            "/.well-known/jwks.json"
     );
 
     /**
@@ -53,11 +63,70 @@ public class SecurityProperties {
     private List<String> devEndpoints = List.of("/h2-console/**");
 
     /**
-     * BCrypt password encoder strength
+     * BCrypt password encoder strength (ignored when cost calibration is enabled)
      */
-    @Positive
+    @Min(4)
+    @Max(31)
     private int passwordEncoderStrength = 10;
 
+    /**
+     * Pick the BCrypt strength at startup from the measured hash time
+     */
+    @Valid
+    private PasswordCostCalibration passwordCostCalibration = new PasswordCostCalibration();
+
+    /**
+     * Executor that runs password hashing off the request threads
+     */
+    @Valid
+    private PasswordHashing passwordHashing = new PasswordHashing();
+
+    /**
+     * How the JWT filter builds the authenticated principal (default: DATABASE)
+     */
+    @NotNull
+    private AuthenticationMode authenticationMode = AuthenticationMode.DATABASE;
+
+    /**
+     * Throttling of login attempts per client IP and per username
+     */
+    @Valid
+    private LoginRateLimit loginRateLimit = new LoginRateLimit();
+
+    /**
+     * Background deletion of expired and revoked refresh tokens
+     */
+    @Valid
+    private RefreshTokenPurge refreshTokenPurge = new RefreshTokenPurge();
+
+    /**
+     * Write refresh tokens through a single writer that commits concurrent writes together
+     */
+    @Valid
+    private RefreshTokenGroupCommit refreshTokenGroupCommit = new RefreshTokenGroupCommit();
+
+    /**
+     * In-memory cache in front of the user persistence port
+     */
+    private UserCache userCache = new UserCache();
+
+    /**
+     * Batch token introspection (POST /api/auth/introspect)
+     */
+    @Valid
+    private Introspection introspection = new Introspection();
+
+    public enum AuthenticationMode {
+        /**
+         * Load the user through UserDetailsService on every authenticated request
+         */
+        DATABASE,
+        /**
+         * Trust the verified sub and roles claims; no database access per request
+         */
+        STATELESS
+    }
+
     @Data
     public static class Jwt {
         /**
@@ -75,17 +144,41 @@ public class SecurityProperties {
         private Long refreshTokenExpiration = 604800000L;
 
         /**
-         * Path to RSA private key
+         * Signature algorithm for issued tokens; the configured key pair must match it (default: RS256)
+         */
+        @NotNull
+        private SigningAlgorithm algorithm = SigningAlgorithm.RS256;
+
+        /**
+         * Path to the PEM (PKCS#8) private key
          */
         @NotEmpty
         private String privateKeyPath = "classpath:jwtKeys/private.key.pem";
 
         /**
-         * Path to RSA public key
+         * Path to the PEM (X.509) public key
          */
         @NotEmpty
         private String publicKeyPath = "classpath:jwtKeys/public.key.pem";
 
+        /**
+         * kid header of the configured key pair (default: RFC 7638 thumbprint of the public key)
+         */
+        private String keyId;
+
+        /**
+         * Public keys that no longer sign but must still verify tokens issued with them
+         */
+        @Valid
+        private List<RetiredKey> retiredKeys = new ArrayList<>();
+
+        /**
+         * Cache-Control max-age of the JWKS endpoint in milliseconds (default: 5 minutes)
+         */
+        @NotNull
+        @Positive
+        private Long jwksMaxAge = 300000L;
+
         /**
          * JWT issuer claim
          */
@@ -95,5 +188,395 @@ public class SecurityProperties {
          * JWT audience claim
          */
         private String audience = "zgo-api";
+
+        /**
+         * Automatic signing key rotation
+         */
+        @Valid
+        private Rotation rotation = new Rotation();
+
+        /**
+         * Cache of already verified access tokens
+         */
+        private VerificationCache verificationCache = new VerificationCache();
+
+        /**
+         * Denylist of revoked access tokens
+         */
+        @Valid
+        private Revocation revocation = new Revocation();
+
+        /**
+         * A successor is generated one publication lead before the interval ends; with no time left, every
+         * check would generate and store another key.
+         */
+        @AssertTrue(message = "rotation.interval must be longer than max(rotation.check-interval, jwks-max-age)")
+        public boolean isRotationIntervalLongerThanPublicationLead() {
+            if (!rotation.isEnabled() || rotation.getInterval() == null
+                    || rotation.getCheckInterval() == null || jwksMaxAge == null) {
+                return true;
+            }
+            return rotation.getInterval() > Math.max(rotation.getCheckInterval(), jwksMaxAge);
+        }
+    }
+
+    @Data
+    public static class Rotation {
+        /**
+         * Generate and promote new signing keys in the background (default: disabled)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Age in milliseconds after which the signing key is replaced (default: 1 day).
+         * Its successor is published for verification max(check-interval, jwks-max-age) earlier,
+         * so the interval must be longer than that.
+         */
+        @NotNull
+        @Positive
+        private Long interval = 86400000L;
+
+        /**
+         * How long in milliseconds a replaced key keeps verifying tokens.
+         * Never shorter than access-token-expiration, which is also the default.
+         */
+        @Positive
+        private Long overlap;
+
+        /**
+         * How often in milliseconds the keystore directory is checked for keys created by other replicas
+         */
+        @NotNull
+        @Positive
+        private Long checkInterval = 60000L;
+
+        /**
+         * Directory shared by all replicas where generated key pairs are persisted as PEM files
+         */
+        @NotEmpty
+        private String keystoreDir = "./jwt-keystore";
+    }
+
+    @Data
+    public static class Revocation {
+        /**
+         * Revoked, not yet expired access tokens the pre-filter is sized for; more still work, with more false positives
+         */
+        @Positive
+        private int expectedRevocations = 10000;
+
+        /**
+         * Resolution in milliseconds at which revoked tokens are evicted after expiring (default: 1 second)
+         */
+        @NotNull
+        @Positive
+        private Long tick = 1000L;
+    }
+
+    @Data
+    public static class RetiredKey {
+        /**
+         * kid the tokens signed with this key carry
+         */
+        @NotEmpty
+        private String kid;
+
+        /**
+         * Algorithm the key was used with
+         */
+        @NotNull
+        private SigningAlgorithm algorithm = SigningAlgorithm.RS256;
+
+        /**
+         * Path to the PEM (X.509) public key
+         */
+        @NotEmpty
+        private String publicKeyPath;
+    }
+
+    public enum SigningAlgorithm {
+        /**
+         * RSA PKCS#1 v1.5 with SHA-256 (RSA key pair)
+         */
+        RS256("RSA"),
+        /**
+         * ECDSA on P-256 with SHA-256 (EC key pair)
+         */
+        ES256("EC"),
+        /**
+         * Edwards-curve signatures (Ed25519 key pair)
+         */
+        EdDSA("Ed25519");
+
+        private final String keyAlgorithm;
+
+        SigningAlgorithm(String keyAlgorithm) {
+            this.keyAlgorithm = keyAlgorithm;
+        }
+
+        /**
+         * JCA key algorithm name used to decode the PEM keys
+         */
+        public String getKeyAlgorithm() {
+            return keyAlgorithm;
+        }
+    }
+
+    @Data
+    public static class PasswordHashing {
+        /**
+         * Hash passwords on a dedicated bounded executor (default: enabled)
+         */
+        private boolean enabled = true;
+
+        /**
+         * Hashing threads; 0 uses the number of available processors
+         */
+        @PositiveOrZero
+        private int threads = 0;
+
+        /**
+         * Hash requests allowed to wait for a thread before new ones are rejected with 503
+         */
+        @Positive
+        private int queueCapacity = 64;
+
+        /**
+         * Retry-After sent with the 503 response, in milliseconds (default: 1 second)
+         */
+        @NotNull
+        @Positive
+        private Long retryAfter = 1000L;
+    }
+
+    @Data
+    public static class PasswordCostCalibration {
+        /**
+         * Measure BCrypt at startup instead of using password-encoder-strength (default: disabled)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Hash time in milliseconds the chosen strength must not exceed (default: 250 ms)
+         */
+        @NotNull
+        @Positive
+        private Long targetLatency = 250L;
+
+        /**
+         * Lowest strength ever chosen, even if it misses the target
+         */
+        @Min(4)
+        @Max(31)
+        private int minStrength = 8;
+
+        /**
+         * Highest strength ever chosen
+         */
+        @Min(4)
+        @Max(31)
+        private int maxStrength = 14;
+
+        @AssertTrue(message = "min-strength must not exceed max-strength")
+        public boolean isStrengthRangeOrdered() {
+            return minStrength <= maxStrength;
+        }
+    }
+
+    @Data
+    public static class LoginRateLimit {
+        /**
+         * Reject excess login attempts with 429 (default: enabled)
+         */
+        private boolean enabled = true;
+
+        /**
+         * Attempts allowed per client IP (default: 20 per minute)
+         */
+        @Valid
+        private Limit perIp = new Limit(20, 60000L);
+
+        /**
+         * Attempts allowed per username, whatever the client IP (default: 5 per minute)
+         */
+        @Valid
+        private Limit perUsername = new Limit(5, 60000L);
+
+        /**
+         * Buckets kept per key type; memory is fixed at 8 bytes per bucket
+         */
+        @Positive
+        private int slots = 65536;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limit {
+        /**
+         * Attempts allowed in a burst
+         */
+        @Positive
+        private int capacity;
+
+        /**
+         * Milliseconds for a fully used budget to refill
+         */
+        @NotNull
+        @Positive
+        private Long refillPeriod;
+    }
+
+    @Data
+    public static class RefreshTokenPurge {
+        /**
+         * Periodically delete expired and revoked refresh tokens (default: enabled)
+         */
+        private boolean enabled = true;
+
+        /**
+         * Delay in milliseconds between the end of a purge run and the start of the next (default: 1 hour)
+         */
+        @NotNull
+        @Positive
+        private Long interval = 3600000L;
+
+        /**
+         * Maximum rows deleted per statement
+         */
+        @Positive
+        private int batchSize = 1000;
+
+        /**
+         * Pause in milliseconds between batches, to leave room for other writes (default: 100 ms)
+         */
+        @NotNull
+        @PositiveOrZero
+        private Long pause = 100L;
+
+        /**
+         * How long in milliseconds tokens are kept after they expire or are revoked (default: 1 day)
+         */
+        @NotNull
+        @PositiveOrZero
+        private Long retention = 86400000L;
+    }
+
+    @Data
+    public static class RefreshTokenGroupCommit {
+        /**
+         * Queue refresh token writes for a single writer thread (default: disabled)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Writes committed together in one transaction at most
+         */
+        @Positive
+        private int maxBatchSize = 64;
+
+        /**
+         * Milliseconds the writer waits for a batch to fill once it has a first write; 0 commits whatever is
+         * queued right away (default: 2 ms)
+         */
+        @NotNull
+        @PositiveOrZero
+        private Long maxDelay = 2L;
+
+        /**
+         * Writes allowed to wait for the writer before new ones are rejected with 503
+         */
+        @Positive
+        private int queueCapacity = 8192;
+
+        /**
+         * Milliseconds a caller waits for its write to commit before failing with 503 (default: 5 seconds)
+         */
+        @NotNull
+        @Positive
+        private Long timeout = 5000L;
+
+        /**
+         * Retry-After sent with the 503 response, in milliseconds (default: 1 second)
+         */
+        @NotNull
+        @Positive
+        private Long retryAfter = 1000L;
+    }
+
+    @Data
+    public static class Introspection {
+        /**
+         * Verification threads; 0 uses the number of available processors
+         */
+        @PositiveOrZero
+        private int threads = 0;
+
+        /**
+         * Verifications waiting for a thread; beyond that the request thread verifies its own tokens
+         */
+        @Positive
+        private int queueCapacity = 256;
+
+        /**
+         * Tokens of one request in flight at once, ahead of the next one written to the response
+         */
+        @Positive
+        private int window = 64;
+
+        /**
+         * Largest batch accepted in one request
+         */
+        @Positive
+        private int maxTokens = 1000;
+
+        /**
+         * Milliseconds a request waits for one token's result before failing with 503 (default: 5 seconds)
+         */
+        @NotNull
+        @Positive
+        private Long timeout = 5000L;
+
+        /**
+         * Retry-After sent with the 503 response, in milliseconds (default: 1 second)
+         */
+        @NotNull
+        @Positive
+        private Long retryAfter = 1000L;
+    }
+
+    @Data
+    public static class UserCache {
+        /**
+         * Cache user lookups by username and email (default: disabled)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of users kept per key type
+         */
+        @Positive
+        private long maxSize = 10000L;
+
+        /**
+         * Time to live of a cached user in milliseconds (default: 5 minutes)
+         */
+        @NotNull
+        @Positive
+        private Long ttl = 300000L;
+    }
+
+    @Data
+    public static class VerificationCache {
+        /**
+         * Skip signature verification for tokens that were verified before (default: disabled)
+         */
+        private boolean enabled = false;
+
+        /**
+         * Maximum number of verified tokens kept in memory
+         */
+        @Positive
+        private long maxEntries = 10000L;
     }
 }
\ No newline at end of file
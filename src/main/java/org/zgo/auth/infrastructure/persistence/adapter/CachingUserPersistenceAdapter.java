@@ -0,0 +1,168 @@
+package org.zgo.auth.infrastructure.persistence.adapter;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.application.port.out.UserPersistencePort;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.User;
+import org.zgo.auth.domain.model.UserConflict;
+import org.zgo.auth.domain.model.UserCredentials;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Caching decorator of {@link UserPersistenceAdapter}, keyed by username and by email.
+ * Concurrent misses for the same key trigger a single query; absent users are not cached.
+ * Entries are replaced on every save, so writes through this port are immediately visible; the keys each
+ * user id was last cached under are indexed, so a changed username or email evicts just its stale entry.
+ * The query runs outside any cache lock, so a virtual thread blocked on JDBC does not pin its carrier.
+ * {@link User} is mutable, so callers get their own copy and never the cached instance.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "security.user-cache", name = "enabled", havingValue = "true")
+public class CachingUserPersistenceAdapter implements UserPersistencePort {
+
+    private final UserPersistenceAdapter delegate;
+    private final AsyncCache<String, User> byUsername;
+    private final AsyncCache<String, User> byEmail;
+    private final Cache<Long, CachedKeys> keysById;
+
+    public CachingUserPersistenceAdapter(UserPersistenceAdapter delegate,
+                                         SecurityProperties securityProperties,
+                                         MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        SecurityProperties.UserCache config = securityProperties.getUserCache();
+        this.byUsername = newCache(config);
+        this.byEmail = newCache(config);
+        this.keysById = Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(Duration.ofMillis(config.getTtl()))
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, byUsername, "users.by-username");
+        CaffeineCacheMetrics.monitor(meterRegistry, byEmail, "users.by-email");
+    }
+
+    @Override
+    public User save(User user) {
+        User saved = delegate.save(user);
+        CachedKeys previous = user.getId() != null ? keysById.getIfPresent(user.getId()) : null;
+        if (previous != null) {
+            // username or email changed: only the entries under the old keys are stale
+            if (!previous.username().equals(saved.getUsername())) {
+                byUsername.synchronous().invalidate(previous.username());
+            }
+            if (!previous.email().equals(saved.getEmail())) {
+                byEmail.synchronous().invalidate(previous.email());
+            }
+        }
+        CompletableFuture<User> cached = CompletableFuture.completedFuture(copy(saved));
+        byUsername.put(saved.getUsername(), cached);
+        byEmail.put(saved.getEmail(), cached);
+        index(saved);
+        return saved;
+    }
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return Optional.ofNullable(cachedByUsername(username)).map(CachingUserPersistenceAdapter::copy);
+    }
+
+    @Override
+    public Optional<User> findByEmail(String email) {
+        User user = load(byEmail, email, delegate::findByEmail);
+        if (user != null) {
+            byUsername.asMap().putIfAbsent(user.getUsername(), CompletableFuture.completedFuture(user));
+            index(user);
+        }
+        return Optional.ofNullable(user).map(CachingUserPersistenceAdapter::copy);
+    }
+
+    @Override
+    public Optional<UserCredentials> findCredentialsByUsername(String username) {
+        // served from the same entries as findByUsername, so a cache hit needs no query at all;
+        // UserCredentials is immutable, so the cached instance is read without a copy
+        return Optional.ofNullable(cachedByUsername(username))
+                .map(u -> new UserCredentials(u.getUsername(), u.getPassword(), Role.toBits(u.getRoles())));
+    }
+
+    @Override
+    public Optional<UserConflict> findConflict(String username, String email) {
+        // absent users are not cached, so only the database can tell that a name is free
+        return delegate.findConflict(username, email);
+    }
+
+    /**
+     * Returns the cached instance, which must not escape to callers.
+     */
+    private User cachedByUsername(String username) {
+        User user = load(byUsername, username, delegate::findByUsername);
+        if (user != null) {
+            byEmail.asMap().putIfAbsent(user.getEmail(), CompletableFuture.completedFuture(user));
+            index(user);
+        }
+        return user;
+    }
+
+    /**
+     * The first caller installs an incomplete future and runs the query on its own thread; concurrent callers
+     * for the same key wait on that future. A null result removes the entry.
+     */
+    private static User load(AsyncCache<String, User> cache, String key, Function<String, Optional<User>> query) {
+        CompletableFuture<User> loading = new CompletableFuture<>();
+        CompletableFuture<User> result = cache.get(key, (k, executor) -> loading);
+        if (result == loading) {
+            try {
+                loading.complete(query.apply(key).orElse(null));
+            } catch (RuntimeException ex) {
+                loading.completeExceptionally(ex);
+                throw ex;
+            }
+        }
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            throw ex.getCause() instanceof RuntimeException cause ? cause : ex;
+        }
+    }
+
+    private void index(User user) {
+        if (user.getId() != null) {
+            // a read for the same keys must not cost a write
+            CachedKeys keys = keysById.getIfPresent(user.getId());
+            if (keys == null || !keys.matches(user)) {
+                keysById.put(user.getId(), new CachedKeys(user.getUsername(), user.getEmail()));
+            }
+        }
+    }
+
+    private static User copy(User user) {
+        return new User(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(), user.getRoles());
+    }
+
+    private static AsyncCache<String, User> newCache(SecurityProperties.UserCache config) {
+        return Caffeine.newBuilder()
+                .maximumSize(config.getMaxSize())
+                .expireAfterWrite(Duration.ofMillis(config.getTtl()))
+                .recordStats()
+                .buildAsync();
+    }
+
+    private record CachedKeys(String username, String email) {
+
+        boolean matches(User user) {
+            return username.equals(user.getUsername()) && email.equals(user.getEmail());
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package org.zgo.auth.infrastructure.persistence.adapter;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.zgo.auth.application.port.out.RefreshTokenPersistencePort;
+import org.zgo.auth.domain.exception.custom.ServiceUnavailableException;
+import org.zgo.auth.domain.model.RefreshToken;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+/**
+ * Group-commit decorator of {@link RefreshTokenPersistenceAdapter}.
+ *
+ * Saves and rotations from concurrent requests go through a bounded queue to a single writer thread, which
+ * runs up to max-batch-size of them in one transaction, so many requests share one commit (and one JDBC
+ * batch for the inserts). Each caller blocks until the transaction holding its write has committed, so a
+ * token is never handed out before it is durable. Reads and the purge go straight to the delegate.
+ *
+ * A write that arrives inside an existing transaction is not queued: it must commit or roll back with its caller.
+ */
+@Primary
+@Component
+@ConditionalOnProperty(prefix = "security.refresh-token-group-commit", name = "enabled", havingValue = "true")
+public class GroupCommitRefreshTokenPersistenceAdapter implements RefreshTokenPersistencePort, AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitRefreshTokenPersistenceAdapter.class);
+
+    private final RefreshTokenPersistenceAdapter delegate;
+    private final TransactionTemplate transaction;
+    private final BlockingQueue<Write<?>> queue;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+    private final Thread writer;
+    private final Timer flushTimer;
+    private final DistributionSummary batchSizes;
+    private final Counter rejected;
+
+    private volatile boolean running = true;
+
+    public GroupCommitRefreshTokenPersistenceAdapter(RefreshTokenPersistenceAdapter delegate,
+                                                     PlatformTransactionManager transactionManager,
+                                                     SecurityProperties securityProperties,
+                                                     MeterRegistry meterRegistry) {
+        SecurityProperties.RefreshTokenGroupCommit config = securityProperties.getRefreshTokenGroupCommit();
+        this.delegate = delegate;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.maxBatchSize = config.getMaxBatchSize();
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(config.getMaxDelay());
+        this.timeoutMillis = config.getTimeout();
+        this.retryAfterSeconds = Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(config.getRetryAfter() + 999L));
+
+        Gauge.builder("refresh_tokens.group_commit.queue", queue, BlockingQueue::size)
+                .description("Refresh token writes waiting for the writer")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("refresh_tokens.group_commit.flush")
+                .description("Time to run and commit one batch of refresh token writes")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("refresh_tokens.group_commit.batch")
+                .description("Refresh token writes per commit")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("refresh_tokens.group_commit.rejected")
+                .description("Refresh token writes refused because the queue was full")
+                .register(meterRegistry);
+
+        this.writer = Thread.ofPlatform().name("refresh-token-writer").daemon().start(this::run);
+    }
+
+    @Override
+    public RefreshToken save(RefreshToken refreshToken) {
+        return submit(port -> port.save(refreshToken));
+    }
+
+    @Override
+    public Optional<RefreshToken> rotate(String token, Instant now, Function<String, RefreshToken> replacement) {
+        return submit(port -> port.rotate(token, now, replacement));
+    }
+
+    @Override
+    public Optional<RefreshToken> findByToken(String token) {
+        return delegate.findByToken(token);
+    }
+
+    @Override
+    public void delete(RefreshToken refreshToken) {
+        delegate.delete(refreshToken);
+    }
+
+    @Override
+    public Optional<String> revokeIfActive(String token, Instant now) {
+        return delegate.revokeIfActive(token, now);
+    }
+
+    @Override
+    public int revokeAllForUser(String username, Instant now) {
+        // already a single statement, and incident response should not wait behind queued writes
+        return delegate.revokeAllForUser(username, now);
+    }
+
+    @Override
+    public int deleteExpired(Instant cutoff, int limit) {
+        return delegate.deleteExpired(cutoff, limit);
+    }
+
+    /**
+     * Stops accepting writes, lets the writer commit what is already queued and waits for it to finish.
+     * A write that slipped into the queue after the writer's last look fails with 503 rather than waiting
+     * for a writer that is gone.
+     */
+    @Override
+    public void close() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(10));
+        List<Write<?>> leftovers = new ArrayList<>();
+        queue.drainTo(leftovers);
+        leftovers.forEach(w -> w.done().completeExceptionally(
+                new ServiceUnavailableException("Refresh token writer stopped", retryAfterSeconds)));
+    }
+
+    private <T> T submit(Function<RefreshTokenPersistencePort, T> operation) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return operation.apply(delegate);
+        }
+        Write<T> write = new Write<>(operation, new CompletableFuture<>());
+        if (!running || !queue.offer(write)) {
+            rejected.increment();
+            throw new ServiceUnavailableException("Too many concurrent refresh token writes", retryAfterSeconds);
+        }
+        try {
+            return write.done().get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            // as below, the write may still commit later
+            throw new ServiceUnavailableException("Timed out storing the refresh token", retryAfterSeconds);
+        } catch (InterruptedException ex) {
+            // the write may still commit; the caller just stops waiting for it
+            Thread.currentThread().interrupt();
+            throw new ServiceUnavailableException("Interrupted while storing the refresh token", retryAfterSeconds);
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+    private void run() {
+        List<Write<?>> batch = new ArrayList<>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Write<?> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                fill(batch);
+                flush(batch);
+            } catch (InterruptedException ex) {
+                // only close() stops the writer; whatever was already taken is still committed
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+            } catch (RuntimeException ex) {
+                logger.error("Refresh token writer failed: {}", ex.getMessage(), ex);
+                batch.forEach(w -> w.done().completeExceptionally(ex));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Takes what is already queued, then waits up to max-delay for the batch to fill.
+     */
+    private void fill(List<Write<?>> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxDelayNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            Write<?> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Write<?>> batch) {
+        batchSizes.record(batch.size());
+        List<Object> results = new ArrayList<>(batch.size());
+        try {
+            flushTimer.record(() -> transaction.executeWithoutResult(status -> {
+                for (Write<?> write : batch) {
+                    results.add(write.operation().apply(delegate));
+                }
+            }));
+        } catch (RuntimeException ex) {
+            // one bad write rolled back the whole batch: retry each on its own so only that one fails
+            logger.warn("Group commit of {} refresh token writes failed, retrying one by one: {}",
+                    batch.size(), ex.getMessage());
+            batch.forEach(this::flushAlone);
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            complete(batch.get(i), results.get(i));
+        }
+    }
+
+    private <T> void flushAlone(Write<T> write) {
+        try {
+            write.done().complete(transaction.execute(status -> write.operation().apply(delegate)));
+        } catch (RuntimeException ex) {
+            write.done().completeExceptionally(ex);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> void complete(Write<T> write, Object result) {
+        write.done().complete((T) result);
+    }
+
+    private record Write<T>(Function<RefreshTokenPersistencePort, T> operation, CompletableFuture<T> done) {
+    }
+}
@@ -0,0 +1,21 @@
+package org.zgo.auth.infrastructure.persistence.adapter;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Timers of the persistence adapters: {@code auth.persistence} tagged with the port and the method.
+ */
+final class PersistenceTimers {
+
+    private PersistenceTimers() {
+    }
+
+    static Timer timer(MeterRegistry registry, String port, String method) {
+        return Timer.builder("auth.persistence")
+                .tag("port", port)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+}
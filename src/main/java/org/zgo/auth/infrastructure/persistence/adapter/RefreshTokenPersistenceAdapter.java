@@ -1,52 +1,129 @@
 package org.zgo.auth.infrastructure.persistence.adapter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 import org.zgo.auth.application.port.out.RefreshTokenPersistencePort;
 import org.zgo.auth.domain.model.RefreshToken;
 import org.zgo.auth.infrastructure.persistence.entity.RefreshTokenEntity;
 import org.zgo.auth.infrastructure.persistence.repository.RefreshTokenRepository;
+import org.zgo.auth.infrastructure.util.TokenDigests;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Component
 public class RefreshTokenPersistenceAdapter implements RefreshTokenPersistencePort {
 
     private final RefreshTokenRepository repository;
+    private final Timer saveTimer;
+    private final Timer findByTokenTimer;
+    private final Timer deleteTimer;
+    private final Timer revokeIfActiveTimer;
+    private final Timer rotateTimer;
+    private final Timer revokeAllForUserTimer;
+    private final Timer deleteExpiredTimer;
 
-    public RefreshTokenPersistenceAdapter(RefreshTokenRepository repository) {
+    public RefreshTokenPersistenceAdapter(RefreshTokenRepository repository, MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.saveTimer = PersistenceTimers.timer(meterRegistry, "refresh_tokens", "save");
+        this.findByTokenTimer = PersistenceTimers.timer(meterRegistry, "refresh_tokens", "findByToken");
+        this.deleteTimer = PersistenceTimers.timer(meterRegistry, "refresh_tokens", "delete");
+        this.revokeIfActiveTimer = PersistenceTimers.timer(meterRegistry, "refresh_tokens", "revokeIfActive");
+        this.rotateTimer = PersistenceTimers.timer(meterRegistry, "refresh_tokens", "rotate");
+        this.revokeAllForUserTimer = PersistenceTimers.timer(meterRegistry, "refresh_tokens", "revokeAllForUser");
+        this.deleteExpiredTimer = PersistenceTimers.timer(meterRegistry, "refresh_tokens", "deleteExpired");
     }
 
     @Override
     public RefreshToken save(RefreshToken refreshToken) {
+        return saveTimer.record(() -> doSave(refreshToken));
+    }
+
+    private RefreshToken doSave(RefreshToken refreshToken) {
         RefreshTokenEntity e = new RefreshTokenEntity();
         e.setId(refreshToken.getId());
-        e.setToken(refreshToken.getToken());
+        e.setTokenHash(TokenDigests.sha256(refreshToken.getToken()));
         e.setUsername(refreshToken.getUsername());
         e.setExpiresAt(refreshToken.getExpiresAt());
         e.setRevoked(refreshToken.isRevoked());
+        e.setRevokedAt(refreshToken.getRevokedAt());
         RefreshTokenEntity saved = repository.save(e);
-        return toDomain(saved);
+        return toDomain(saved, refreshToken.getToken());
     }
 
     @Override
     public Optional<RefreshToken> findByToken(String token) {
-        return repository.findByToken(token).map(this::toDomain);
+        return findByTokenTimer.record(() ->
+                repository.findByTokenHash(TokenDigests.sha256(token)).map(e -> toDomain(e, token)));
     }
 
     @Override
     public void delete(RefreshToken refreshToken) {
         // optional
-        repository.findByToken(refreshToken.getToken()).ifPresent(repository::delete);
+        deleteTimer.record(() ->
+                repository.findByTokenHash(TokenDigests.sha256(refreshToken.getToken())).ifPresent(repository::delete));
+    }
+
+    @Override
+    @Transactional
+    public Optional<String> revokeIfActive(String token, Instant now) {
+        return revokeIfActiveTimer.record(() -> {
+            byte[] tokenHash = TokenDigests.sha256(token);
+            if (repository.revokeIfActive(tokenHash, now) == 0) {
+                return Optional.<String>empty();
+            }
+            // the row is locked by the update until this transaction ends. JPQL has no UPDATE ... RETURNING and
+            // the caller only knows the token, so the username costs a second statement, served by ux_refresh_tokens_token_hash
+            return repository.findUsernameByTokenHash(tokenHash);
+        });
+    }
+
+    @Override
+    @Transactional
+    public Optional<RefreshToken> rotate(String token, Instant now, Function<String, RefreshToken> replacement) {
+        return rotateTimer.record(() -> revokeIfActive(token, now).map(replacement).map(this::save));
+    }
+
+    @Override
+    @Transactional
+    public int revokeAllForUser(String username, Instant now) {
+        return revokeAllForUserTimer.record(() -> repository.revokeAllByUsername(username, now));
+    }
+
+    @Override
+    @Transactional
+    public int deleteExpired(Instant cutoff, int limit) {
+        return deleteExpiredTimer.record(() -> {
+            // two index range scans instead of one OR that neither index can serve
+            int deleted = deleteAll(repository.findExpiredIds(cutoff, PageRequest.of(0, limit)));
+            if (deleted < limit) {
+                deleted += deleteAll(repository.findRevokedIds(cutoff, PageRequest.of(0, limit - deleted)));
+            }
+            return deleted;
+        });
+    }
+
+    private int deleteAll(List<Long> ids) {
+        if (!ids.isEmpty()) {
+            repository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
     }
 
-    private RefreshToken toDomain(RefreshTokenEntity e) {
+    // Only the digest is stored, so the raw token comes from the caller
+    private RefreshToken toDomain(RefreshTokenEntity e, String token) {
         RefreshToken rt = new RefreshToken();
         rt.setId(e.getId());
-        rt.setToken(e.getToken());
+        rt.setToken(token);
         rt.setUsername(e.getUsername());
         rt.setExpiresAt(e.getExpiresAt());
         rt.setRevoked(e.isRevoked());
+        rt.setRevokedAt(e.getRevokedAt());
         return rt;
     }
 }
\ No newline at end of file
@@ -1,45 +1,99 @@
 package org.zgo.auth.infrastructure.persistence.adapter;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 import org.zgo.auth.application.port.out.UserPersistencePort;
+import org.zgo.auth.domain.exception.custom.UserAlreadyExistsException;
 import org.zgo.auth.domain.model.Role;
 import org.zgo.auth.domain.model.User;
+import org.zgo.auth.domain.model.UserConflict;
+import org.zgo.auth.domain.model.UserCredentials;
 import org.zgo.auth.infrastructure.persistence.entity.UserEntity;
 import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Component
 public class UserPersistenceAdapter implements UserPersistencePort {
 
     private final UserRepository repository;
+    private final Timer saveTimer;
+    private final Timer findByUsernameTimer;
+    private final Timer findByEmailTimer;
+    private final Timer findConflictTimer;
+    private final Timer findCredentialsTimer;
 
-    public UserPersistenceAdapter(UserRepository repository) {
+    public UserPersistenceAdapter(UserRepository repository, MeterRegistry meterRegistry) {
         this.repository = repository;
+        this.saveTimer = PersistenceTimers.timer(meterRegistry, "users", "save");
+        this.findByUsernameTimer = PersistenceTimers.timer(meterRegistry, "users", "findByUsername");
+        this.findByEmailTimer = PersistenceTimers.timer(meterRegistry, "users", "findByEmail");
+        this.findConflictTimer = PersistenceTimers.timer(meterRegistry, "users", "findConflict");
+        this.findCredentialsTimer = PersistenceTimers.timer(meterRegistry, "users", "findCredentialsByUsername");
     }
 
     @Override
     public User save(User user) {
+        return saveTimer.record(() -> doSave(user));
+    }
+
+    private User doSave(User user) {
         UserEntity entity = new UserEntity();
         entity.setId(user.getId());
         entity.setUsername(user.getUsername());
         entity.setEmail(user.getEmail());
         entity.setPassword(user.getPassword());
-        entity.setRoles(user.getRoles().stream().map(Enum::name).collect(Collectors.toSet()));
+        entity.setRoleBits(Role.toBits(user.getRoles()));
 
-        UserEntity saved = repository.save(entity);
-        return toDomain(saved);
+        try {
+            return toDomain(repository.save(entity));
+        } catch (DataIntegrityViolationException ex) {
+            if (!violatesUniqueKey(ex)) {
+                throw ex;
+            }
+            // a concurrent registration took the username or email after the existence check
+            throw new UserAlreadyExistsException("username or email already exists");
+        }
+    }
+
+    private static boolean violatesUniqueKey(DataIntegrityViolationException ex) {
+        if (!(ex.getCause() instanceof ConstraintViolationException violation) || violation.getConstraintName() == null) {
+            return false;
+        }
+        // some drivers report the name schema-qualified or upper-cased
+        String constraint = violation.getConstraintName().toLowerCase(Locale.ROOT);
+        return constraint.contains(UserEntity.USERNAME_KEY) || constraint.contains(UserEntity.EMAIL_KEY);
     }
 
     @Override
     public Optional<User> findByUsername(String username) {
-        return repository.findByUsername(username).map(this::toDomain);
+        return findByUsernameTimer.record(() -> repository.findByUsername(username).map(this::toDomain));
     }
 
     @Override
     public Optional<User> findByEmail(String email) {
-        return repository.findByEmail(email).map(this::toDomain);
+        return findByEmailTimer.record(() -> repository.findByEmail(email).map(this::toDomain));
+    }
+
+    @Override
+    public Optional<UserCredentials> findCredentialsByUsername(String username) {
+        return findCredentialsTimer.record(() -> repository.findCredentialsByUsername(username));
+    }
+
+    @Override
+    public Optional<UserConflict> findConflict(String username, String email) {
+        return findConflictTimer.record(() -> {
+            List<String> taken = repository.findUsernamesByUsernameOrEmail(username, email);
+            if (taken.isEmpty()) {
+                return Optional.<UserConflict>empty();
+            }
+            return Optional.of(taken.contains(username) ? UserConflict.USERNAME : UserConflict.EMAIL);
+        });
     }
 
     private User toDomain(UserEntity e) {
@@ -48,7 +102,7 @@ public class UserPersistenceAdapter implements UserPersistencePort {
         u.setUsername(e.getUsername());
         u.setEmail(e.getEmail());
         u.setPassword(e.getPassword());
-        u.setRoles(e.getRoles().stream().map(Role::valueOf).collect(Collectors.toSet()));
+        u.setRoles(Role.fromBits(e.getRoleBits()));
         return u;
     }
 }
\ No newline at end of file
@@ -1,18 +1,29 @@
 package org.zgo.auth.infrastructure.persistence.entity;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.Instant;
 
 @Entity
-@Table(name = "refresh_tokens")
+@Table(name = "refresh_tokens", indexes = {
+        @Index(name = "ux_refresh_tokens_token_hash", columnList = "token_hash", unique = true),
+        @Index(name = "ix_refresh_tokens_username", columnList = "username"),
+        @Index(name = "ix_refresh_tokens_expires_at", columnList = "expires_at"),
+        @Index(name = "ix_refresh_tokens_revoked_at", columnList = "revoked_at")
+})
 public class RefreshTokenEntity {
+    // Ids come from the sequence in blocks of 50, so inserts are deferred to flush and can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "refresh_tokens_seq")
+    @SequenceGenerator(name = "refresh_tokens_seq", sequenceName = "refresh_tokens_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true)
-    private String token;
+    // SHA-256 of the token; the raw value is never stored
+    @JdbcTypeCode(SqlTypes.BINARY)
+    @Column(name = "token_hash", length = 32, nullable = false)
+    private byte[] tokenHash;
 
     private String username;
 
@@ -20,6 +31,8 @@ public class RefreshTokenEntity {
 
     private boolean revoked;
 
+    private Instant revokedAt;
+
     public Long getId() {
         return id;
     }
@@ -28,12 +41,12 @@ public class RefreshTokenEntity {
         this.id = id;
     }
 
-    public String getToken() {
-        return token;
+    public byte[] getTokenHash() {
+        return tokenHash;
     }
 
-    public void setToken(String token) {
-        this.token = token;
+    public void setTokenHash(byte[] tokenHash) {
+        this.tokenHash = tokenHash;
     }
 
     public String getUsername() {
@@ -59,4 +72,12 @@ public class RefreshTokenEntity {
     public void setRevoked(boolean revoked) {
         this.revoked = revoked;
     }
-}
\ No newline at end of file
+
+    public Instant getRevokedAt() {
+        return revokedAt;
+    }
+
+    public void setRevokedAt(Instant revokedAt) {
+        this.revokedAt = revokedAt;
+    }
+}
@@ -2,29 +2,34 @@ package org.zgo.auth.infrastructure.persistence.entity;
 
 import jakarta.persistence.*;
 
-import java.util.HashSet;
-import java.util.Set;
-
 @Entity
-@Table(name = "users")
+@Table(name = "users", uniqueConstraints = {
+        @UniqueConstraint(name = UserEntity.USERNAME_KEY, columnNames = "username"),
+        @UniqueConstraint(name = UserEntity.EMAIL_KEY, columnNames = "email")
+})
 public class UserEntity {
+    // Named so that a violation can be told apart from other integrity errors
+    public static final String USERNAME_KEY = "ux_users_username";
+    public static final String EMAIL_KEY = "ux_users_email";
+
+    // Ids come from the sequence in blocks of 50, so inserts are deferred to flush and can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String username;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
     private String password;
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "user_roles", joinColumns = @JoinColumn(name = "user_id"))
-    @Column(name = "role")
-    private Set<String> roles = new HashSet<>();
+    // Role bitmask, see Role.bit()
+    @Column(name = "role_bits", nullable = false)
+    private int roleBits;
 
     public Long getId() {
         return id;
@@ -58,11 +63,11 @@ public class UserEntity {
         this.password = password;
     }
 
-    public Set<String> getRoles() {
-        return roles;
+    public int getRoleBits() {
+        return roleBits;
     }
 
-    public void setRoles(Set<String> roles) {
-        this.roles = roles;
+    public void setRoleBits(int roleBits) {
+        this.roleBits = roleBits;
     }
 }
\ No newline at end of file
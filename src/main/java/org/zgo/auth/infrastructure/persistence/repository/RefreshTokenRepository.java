@@ -1,10 +1,38 @@
 package org.zgo.auth.infrastructure.persistence.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.zgo.auth.infrastructure.persistence.entity.RefreshTokenEntity;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.Optional;
 
 public interface RefreshTokenRepository extends JpaRepository<RefreshTokenEntity, Long> {
-    Optional<RefreshTokenEntity> findByToken(String token);
-}
\ No newline at end of file
+    Optional<RefreshTokenEntity> findByTokenHash(byte[] tokenHash);
+
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true, r.revokedAt = :now"
+            + " where r.tokenHash = :tokenHash and r.revoked = false and r.expiresAt > :now")
+    int revokeIfActive(@Param("tokenHash") byte[] tokenHash, @Param("now") Instant now);
+
+    // served by ix_refresh_tokens_username
+    @Modifying
+    @Query("update RefreshTokenEntity r set r.revoked = true, r.revokedAt = :now"
+            + " where r.username = :username and r.revoked = false and r.expiresAt > :now")
+    int revokeAllByUsername(@Param("username") String username, @Param("now") Instant now);
+
+    @Query("select r.username from RefreshTokenEntity r where r.tokenHash = :tokenHash")
+    Optional<String> findUsernameByTokenHash(@Param("tokenHash") byte[] tokenHash);
+
+    // served by ix_refresh_tokens_expires_at
+    @Query("select r.id from RefreshTokenEntity r where r.expiresAt < :cutoff")
+    List<Long> findExpiredIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+
+    // served by ix_refresh_tokens_revoked_at; tokens also expired before the cutoff belong to findExpiredIds
+    @Query("select r.id from RefreshTokenEntity r where r.revokedAt < :cutoff and r.expiresAt >= :cutoff")
+    List<Long> findRevokedIds(@Param("cutoff") Instant cutoff, Pageable pageable);
+}
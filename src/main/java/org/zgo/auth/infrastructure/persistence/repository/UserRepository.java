@@ -1,12 +1,24 @@
 package org.zgo.auth.infrastructure.persistence.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.zgo.auth.domain.model.UserCredentials;
 import org.zgo.auth.infrastructure.persistence.entity.UserEntity;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
     Optional<UserEntity> findByUsername(String username);
 
     Optional<UserEntity> findByEmail(String email);
+
+    @Query("select new org.zgo.auth.domain.model.UserCredentials(u.username, u.password, u.roleBits)"
+            + " from UserEntity u where u.username = :username")
+    Optional<UserCredentials> findCredentialsByUsername(@Param("username") String username);
+
+    // at most two rows, both served by the unique indexes; roles are not touched
+    @Query("select u.username from UserEntity u where u.username = :username or u.email = :email")
+    List<String> findUsernamesByUsernameOrEmail(@Param("username") String username, @Param("email") String email);
 }
\ No newline at end of file
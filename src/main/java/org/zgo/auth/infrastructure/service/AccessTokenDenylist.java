@@ -0,0 +1,156 @@
+package org.zgo.auth.infrastructure.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * In-memory set of revoked access token ids ({@code jti}), kept until the token would have expired anyway.
+ *
+ * A counting Bloom filter in front of the set answers the common "not revoked" case with a few array reads.
+ * Entries are evicted by a hashed timing wheel: each revocation is filed in the slot of its expiry tick,
+ * and every tick drains one slot, so memory is bounded by the revocations whose tokens are still alive.
+ * Revocations are local to this instance.
+ */
+@Component
+public class AccessTokenDenylist {
+
+    private static final int HASH_FUNCTIONS = 3;
+    private static final int WHEEL_SLOTS = 512;
+
+    private final Set<String> revoked = ConcurrentHashMap.newKeySet();
+    private final AtomicIntegerArray counters;
+    // non-zero counters, for the false-positive estimate
+    private final AtomicInteger occupied = new AtomicInteger();
+    private final int counterMask;
+    private final long tickMillis;
+    private final Queue<Entry>[] wheel;
+    private long lastTick;
+
+    @SuppressWarnings("unchecked")
+    public AccessTokenDenylist(SecurityProperties securityProperties, MeterRegistry meterRegistry) {
+        SecurityProperties.Revocation config = securityProperties.getJwt().getRevocation();
+        // ~10 counters per expected revocation keeps false positives around 1-2% with 3 hash functions
+        int size = Integer.highestOneBit(Math.max(64, config.getExpectedRevocations() * 10 - 1) << 1);
+        this.counters = new AtomicIntegerArray(size);
+        this.counterMask = size - 1;
+        this.tickMillis = config.getTick();
+        this.wheel = new Queue[WHEEL_SLOTS];
+        for (int i = 0; i < WHEEL_SLOTS; i++) {
+            wheel[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.lastTick = System.currentTimeMillis() / tickMillis;
+        Gauge.builder("auth.jwt.revoked", revoked, Set::size)
+                .description("Revoked access tokens not yet expired")
+                .register(meterRegistry);
+        Gauge.builder("auth.jwt.revoked.filter.fpp", this, AccessTokenDenylist::falsePositiveProbability)
+                .description("Chance that a token that is not revoked still needs the set lookup")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Denies the token until {@code expiresAt}. Tokens that already expired are ignored.
+     */
+    public void revoke(String jti, Instant expiresAt) {
+        if (jti == null || !expiresAt.isAfter(Instant.now())) {
+            return;
+        }
+        if (revoked.add(jti)) {
+            long hash = hash(jti);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                if (counters.incrementAndGet(index(hash, i)) == 1) {
+                    occupied.incrementAndGet();
+                }
+            }
+            long expiryTick = Math.ceilDiv(expiresAt.toEpochMilli(), tickMillis);
+            wheel[(int) (expiryTick % WHEEL_SLOTS)].add(new Entry(jti, expiryTick));
+        }
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null) {
+            return false;
+        }
+        long hash = hash(jti);
+        for (int i = 0; i < HASH_FUNCTIONS; i++) {
+            if (counters.get(index(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return revoked.contains(jti);
+    }
+
+    /**
+     * Advances the wheel to the current tick, evicting entries whose token has expired.
+     * Entries filed for a later round of the wheel stay in their slot.
+     */
+    @Scheduled(fixedRateString = "${security.jwt.revocation.tick:1000}")
+    public void expire() {
+        long currentTick = System.currentTimeMillis() / tickMillis;
+        // a full turn visits every slot; going further would only revisit them
+        long from = Math.max(lastTick + 1, currentTick - WHEEL_SLOTS + 1);
+        for (long tick = from; tick <= currentTick; tick++) {
+            wheel[(int) (tick % WHEEL_SLOTS)].removeIf(entry -> {
+                if (entry.expiryTick() > currentTick) {
+                    return false;
+                }
+                evict(entry.jti());
+                return true;
+            });
+        }
+        lastTick = currentTick;
+    }
+
+    /**
+     * Probability that the pre-filter passes an id that was never revoked: the share of non-zero counters
+     * raised to the number of hash functions.
+     */
+    public double falsePositiveProbability() {
+        return Math.pow((double) occupied.get() / counters.length(), HASH_FUNCTIONS);
+    }
+
+    private void evict(String jti) {
+        if (revoked.remove(jti)) {
+            long hash = hash(jti);
+            for (int i = 0; i < HASH_FUNCTIONS; i++) {
+                if (counters.decrementAndGet(index(hash, i)) == 0) {
+                    occupied.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    // Double hashing: index_i = h1 + i * h2, both halves of one 64-bit mix of the id
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return (h1 + i * h2) & counterMask;
+    }
+
+    private static long hash(String jti) {
+        long h = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < jti.length(); i++) {
+            h = (h ^ jti.charAt(i)) * 0x100000001B3L;
+        }
+        // murmur3 finalizer
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    private record Entry(String jti, long expiryTick) {
+    }
+}
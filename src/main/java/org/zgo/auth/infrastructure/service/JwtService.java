@@ -1,66 +1,84 @@
 package org.zgo.auth.infrastructure.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.JwtParserBuilder;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.LocatorAdapter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.key.JwtKeyRing;
+import org.zgo.auth.infrastructure.service.key.JwtKeySet;
+import org.zgo.auth.infrastructure.service.key.SigningKey;
 
-import java.nio.charset.StandardCharsets;
-import java.security.KeyFactory;
-import java.security.PrivateKey;
-import java.security.PublicKey;
-import java.security.spec.PKCS8EncodedKeySpec;
-import java.security.spec.X509EncodedKeySpec;
+import java.security.Key;
 import java.time.Instant;
-import java.util.Base64;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
+import java.util.UUID;
 
 @Service
 public class JwtService {
 
-    // Fallback resources (used only if env vars are not present)
-    @Value("classpath:jwtKeys/private.key.pem")
-    private Resource privateKeyResource;
-
-    @Value("classpath:jwtKeys/public.key.pem")
-    private Resource publicKeyResource;
-
-    @Value("${app.jwt.expiration-ms:900000}") // 15 min default
-    private Long jwtExpirationMs;
-
-    private PrivateKey privateKey;
-    private PublicKey publicKey;
+    private final SecurityProperties securityProperties;
+    private final JwtKeyRing keyRing;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final Timer generateTimer;
+    private final Timer verifyTimer;
+
+    // Built once: parsing and verifying reuse the same immutable parser on every request
+    private JwtParser parser;
+
+    public JwtService(SecurityProperties securityProperties,
+                      JwtKeyRing keyRing,
+                      VerifiedTokenCache verifiedTokenCache,
+                      MeterRegistry meterRegistry) {
+        this.securityProperties = securityProperties;
+        this.keyRing = keyRing;
+        this.verifiedTokenCache = verifiedTokenCache;
+        // a cached result must not outlive the key that verified it
+        keyRing.onReplace(verifiedTokenCache::invalidateAll);
+        this.generateTimer = Timer.builder("auth.jwt.generate")
+                .description("Time to build and sign an access token")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        // includes verified-cache hits, so this is the cost seen by the filter
+        this.verifyTimer = Timer.builder("auth.jwt.verify")
+                .description("Time to verify an access token, cached or not")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
     @PostConstruct
     public void init() {
-        try {
-            String privatePem = System.getenv("APP_JWT_PRIVATE_KEY");
-            String publicPem = System.getenv("APP_JWT_PUBLIC_KEY");
-
-            if (privatePem == null || privatePem.isBlank()) {
-                privatePem = new String(privateKeyResource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-            }
-            if (publicPem == null || publicPem.isBlank()) {
-                publicPem = new String(publicKeyResource.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
-            }
-
-            this.privateKey = getPrivateKeyFromPem(privatePem);
-            this.publicKey = getPublicKeyFromPem(publicPem);
-        } catch (Exception ex) {
-            throw new IllegalStateException("Failed to load RSA keys", ex);
+        SecurityProperties.Jwt jwt = securityProperties.getJwt();
+        // The verification key is looked up by kid in the current key set on every parse
+        JwtParserBuilder builder = Jwts.parser().keyLocator(new KidLocator());
+        if (jwt.getIssuer() != null && !jwt.getIssuer().isBlank()) {
+            builder.requireIssuer(jwt.getIssuer());
+        }
+        if (jwt.getAudience() != null && !jwt.getAudience().isBlank()) {
+            builder.requireAudience(jwt.getAudience());
         }
+        this.parser = builder.build();
     }
 
     public String generateToken(UserDetails userDetails, Map<String, Object> extraClaims) {
-     var claimsBuilder = Jwts.claims();
+        return generateTimer.record(() -> buildToken(userDetails, extraClaims));
+    }
 
-     if (extraClaims != null) {
+    private String buildToken(UserDetails userDetails, Map<String, Object> extraClaims) {
+        SecurityProperties.Jwt jwt = securityProperties.getJwt();
+        var claimsBuilder = Jwts.claims();
+
+        if (extraClaims != null) {
             claimsBuilder.add(extraClaims);
         }
 
@@ -68,63 +86,76 @@ public class JwtService {
         claimsBuilder.add("roles", roles);
 
         Instant now = Instant.now();
-        Instant expiry = now.plusMillis(jwtExpirationMs);
+        Instant expiry = now.plusMillis(jwt.getAccessTokenExpiration());
 
-        return Jwts.builder()
+        SigningKey signingKey = keyRing.current().signingKey();
+        var builder = Jwts.builder()
+                .header().keyId(signingKey.kid()).and()
                 .claims(claimsBuilder.build())
+                .id(UUID.randomUUID().toString())
                 .subject(userDetails.getUsername())
+                .issuer(jwt.getIssuer())
                 .issuedAt(Date.from(now))
-                .expiration(Date.from(expiry))
-                .signWith(privateKey, SignatureAlgorithm.RS256)
+                .expiration(Date.from(expiry));
+        if (jwt.getAudience() != null && !jwt.getAudience().isBlank()) {
+            builder.audience().add(jwt.getAudience());
+        }
+        return builder
+                .signWith(signingKey.privateKey(), signingKey.signatureAlgorithm())
                 .compact();
     }
 
+    /**
+     * Parses the token and checks signature, expiry, issuer and audience in a single pass.
+     * Tokens already verified are served from the {@link VerifiedTokenCache} when it is enabled.
+     *
+     * @throws JwtException if the token is malformed, expired, badly signed or has unexpected claims
+     */
+    public VerifiedToken verify(String token) {
+        return verifyTimer.record(() -> verifiedTokenCache.get(token, this::parseAndVerify));
+    }
+
+    private VerifiedToken parseAndVerify(String token) {
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        return new VerifiedToken(
+                claims.getId(),
+                claims.getSubject(),
+                extractRoles(claims),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration().toInstant()
+        );
+    }
+
     public String extractUsername(String token) {
-        return getClaims(token).getSubject();
+        return verify(token).subject();
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
         try {
-            final String username = extractUsername(token);
-            return username.equals(userDetails.getUsername()) && !isTokenExpired(token);
+            return verify(token).subject().equals(userDetails.getUsername());
         } catch (Exception ex) {
             return false;
         }
     }
 
-    private boolean isTokenExpired(String token) {
-        Date expiry = getClaims(token).getExpiration();
-        return expiry.before(new Date());
-    }
-
-    private Claims getClaims(String token) {
-        return Jwts.parser()
-                .setSigningKey(publicKey)
-                .build()
-                .parseClaimsJws(token)
-                .getPayload();
+    private List<String> extractRoles(Claims claims) {
+        Object roles = claims.get("roles");
+        if (roles instanceof List<?> list) {
+            return list.stream().map(String::valueOf).toList();
+        }
+        return List.of();
     }
 
-    // PEM parsing helpers - tolerant with different PEM header/footer variants and whitespace
-    private PrivateKey getPrivateKeyFromPem(String pem) throws Exception {
-        String clean = pem
-                .replaceAll("-----BEGIN [^-]+-----", "")
-                .replaceAll("-----END [^-]+-----", "")
-                .replaceAll("\\s", "");
-        byte[] decoded = Base64.getDecoder().decode(clean);
-        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(decoded);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        return kf.generatePrivate(keySpec);
-    }
+    private class KidLocator extends LocatorAdapter<Key> {
 
-    private PublicKey getPublicKeyFromPem(String pem) throws Exception {
-        String clean = pem
-                .replaceAll("-----BEGIN [^-]+-----", "")
-                .replaceAll("-----END [^-]+-----", "")
-                .replaceAll("\\s", "");
-        byte[] decoded = Base64.getDecoder().decode(clean);
-        X509EncodedKeySpec spec = new X509EncodedKeySpec(decoded);
-        KeyFactory kf = KeyFactory.getInstance("RSA");
-        return kf.generatePublic(spec);
+        @Override
+        protected Key locate(JwsHeader header) {
+            JwtKeySet keySet = keyRing.current();
+            if (header.getKeyId() == null) {
+                // tokens issued before kid headers were introduced
+                return keySet.signingKey().publicKey();
+            }
+            return keySet.verificationKey(header.getKeyId());
+        }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package org.zgo.auth.infrastructure.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.application.port.out.RefreshTokenPersistencePort;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.time.Instant;
+
+/**
+ * Deletes refresh tokens that expired or were revoked more than the retention ago.
+ * Each batch is a single bulk delete in its own short transaction, so a large backlog never holds long locks.
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.refresh-token-purge", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RefreshTokenPurgeJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenPurgeJob.class);
+
+    private final RefreshTokenPersistencePort persistence;
+    private final SecurityProperties.RefreshTokenPurge config;
+    private final Counter purged;
+    private final Timer batchTimer;
+
+    public RefreshTokenPurgeJob(RefreshTokenPersistencePort persistence,
+                                SecurityProperties securityProperties,
+                                MeterRegistry meterRegistry) {
+        this.persistence = persistence;
+        this.config = securityProperties.getRefreshTokenPurge();
+        this.purged = Counter.builder("refresh_tokens.purged")
+                .description("Expired or revoked refresh tokens deleted")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("refresh_tokens.purge.batch")
+                .description("Time per purge batch")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${security.refresh-token-purge.interval:3600000}",
+            initialDelayString = "${security.refresh-token-purge.interval:3600000}")
+    public void purge() {
+        Instant cutoff = Instant.now().minusMillis(config.getRetention());
+        long total = 0;
+        try {
+            int deleted;
+            do {
+                deleted = batchTimer.record(() -> persistence.deleteExpired(cutoff, config.getBatchSize()));
+                purged.increment(deleted);
+                total += deleted;
+                if (deleted == config.getBatchSize() && config.getPause() > 0) {
+                    Thread.sleep(config.getPause());
+                }
+            } while (deleted == config.getBatchSize());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } catch (Exception ex) {
+            // the remaining rows are picked up by the next run
+            logger.error("Refresh token purge failed: {}", ex.getMessage(), ex);
+        }
+        if (total > 0) {
+            logger.info("Purged {} refresh tokens expired or revoked before {}", total, cutoff);
+        }
+    }
+}
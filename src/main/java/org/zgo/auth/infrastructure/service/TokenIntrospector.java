@@ -0,0 +1,143 @@
+package org.zgo.auth.infrastructure.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.domain.exception.custom.ServiceUnavailableException;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Verifies batches of access tokens on a bounded pool shared by all requests, handing results back in input order.
+ *
+ * Each request keeps at most {@code window} tokens in flight: the oldest result is written before the next token
+ * is submitted, so memory per request stays constant however large the batch. When the shared queue is full the
+ * request thread verifies the token itself, which slows that request down instead of failing it halfway through
+ * a response that is already being streamed. Once the pool is shut down submissions are rejected instead, and no
+ * result is waited for longer than {@code timeout}; either way the request fails with 503.
+ */
+@Component
+public class TokenIntrospector implements AutoCloseable {
+
+    /**
+     * Receives each result, in the order of the input tokens; empty for an invalid, expired or revoked token.
+     */
+    @FunctionalInterface
+    public interface Sink {
+        void accept(Optional<VerifiedToken> token) throws IOException;
+    }
+
+    private final JwtService jwtService;
+    private final AccessTokenDenylist denylist;
+    private final ThreadPoolExecutor executor;
+    private final int window;
+    private final int maxTokens;
+    private final long timeoutMillis;
+    private final long retryAfterSeconds;
+
+    public TokenIntrospector(JwtService jwtService,
+                             AccessTokenDenylist denylist,
+                             SecurityProperties securityProperties,
+                             MeterRegistry meterRegistry) {
+        SecurityProperties.Introspection config = securityProperties.getIntrospection();
+        this.jwtService = jwtService;
+        this.denylist = denylist;
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(config.getQueueCapacity()),
+                new CustomizableThreadFactory("token-introspect-"),
+                TokenIntrospector::runInCaller);
+        this.window = config.getWindow();
+        this.maxTokens = config.getMaxTokens();
+        this.timeoutMillis = config.getTimeout();
+        this.retryAfterSeconds = Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(config.getRetryAfter()));
+
+        Gauge.builder("auth.introspection.queue", executor, e -> e.getQueue().size())
+                .description("Token verifications waiting for an introspection thread")
+                .register(meterRegistry);
+    }
+
+    public int maxTokens() {
+        return maxTokens;
+    }
+
+    public void introspect(List<String> tokens, Sink sink) throws IOException {
+        Deque<Future<Optional<VerifiedToken>>> inFlight = new ArrayDeque<>(Math.min(window, tokens.size()));
+        try {
+            for (String token : tokens) {
+                if (inFlight.size() == window) {
+                    sink.accept(await(inFlight.poll()));
+                }
+                inFlight.add(submit(token));
+            }
+            while (!inFlight.isEmpty()) {
+                sink.accept(await(inFlight.poll()));
+            }
+        } finally {
+            // the client went away or the sink failed: drop whatever has not started yet
+            inFlight.forEach(f -> f.cancel(false));
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private Future<Optional<VerifiedToken>> submit(String token) {
+        try {
+            return executor.submit(() -> verify(token));
+        } catch (RejectedExecutionException ex) {
+            throw new ServiceUnavailableException("Token introspection is shutting down", retryAfterSeconds);
+        }
+    }
+
+    /**
+     * CallerRunsPolicy, except that it rejects once the pool is shut down: CallerRunsPolicy would then drop the
+     * task silently, leaving a future that never completes.
+     */
+    private static void runInCaller(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            throw new RejectedExecutionException("Token introspection pool is shut down");
+        }
+        task.run();
+    }
+
+    private Optional<VerifiedToken> verify(String token) {
+        try {
+            VerifiedToken verified = jwtService.verify(token);
+            return denylist.isRevoked(verified.id()) ? Optional.empty() : Optional.of(verified);
+        } catch (Exception ex) {
+            // malformed, expired, badly signed or with unexpected claims
+            return Optional.empty();
+        }
+    }
+
+    private Optional<VerifiedToken> await(Future<Optional<VerifiedToken>> future) throws IOException {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            future.cancel(true);
+            throw new ServiceUnavailableException("Timed out verifying tokens", retryAfterSeconds);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while verifying tokens");
+        } catch (ExecutionException ex) {
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+}
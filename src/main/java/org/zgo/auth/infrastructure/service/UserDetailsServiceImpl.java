@@ -3,16 +3,31 @@ package org.zgo.auth.infrastructure.service;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 import org.zgo.auth.application.port.out.UserPersistencePort;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.User;
 
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
+
+    // authorities are immutable, one instance per role is shared by every principal
+    private static final Map<Role, GrantedAuthority> AUTHORITIES = new EnumMap<>(Role.class);
+
+    static {
+        for (Role role : Role.values()) {
+            AUTHORITIES.put(role, new SimpleGrantedAuthority(role.name()));
+        }
+    }
 
     private final UserPersistencePort userPort;
 
@@ -22,18 +37,44 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        return userPort.findByUsername(username)
+        // password hash and role bits only, straight from one row of users
+        return userPort.findCredentialsByUsername(username)
+                .map(c -> toUserDetails(c.username(), c.password(), c.roles()))
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+    }
+
+    /**
+     * Builds the principal from a user already in hand, e.g. the one just saved by register.
+     */
+    public static UserDetails toUserDetails(User user) {
+        return toUserDetails(user.getUsername(), user.getPassword(), user.getRoles());
+    }
+
+    private static UserDetails toUserDetails(String username, String password, Set<Role> roles) {
+        List<GrantedAuthority> authorities = new ArrayList<>(roles.size());
+        for (Role role : roles) {
+            authorities.add(AUTHORITIES.get(role));
+        }
+        return new org.springframework.security.core.userdetails.User(
+                username,
+                password,
+                true, true, true, true,
+                authorities
+        );
+    }
+
+    /**
+     * Stores a re-encoded password after a successful login (called by DaoAuthenticationProvider).
+     */
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        return userPort.findByUsername(user.getUsername())
                 .map(u -> {
-                    Set<GrantedAuthority> authorities = u.getRoles().stream()
-                            .map(r -> new SimpleGrantedAuthority(r.name()))
-                            .collect(Collectors.toSet());
-                    return new org.springframework.security.core.userdetails.User(
-                            u.getUsername(),
-                            u.getPassword(),
-                            true, true, true, true,
-                            authorities
-                    );
+                    userPort.save(new User(u.getId(), u.getUsername(), u.getEmail(), newPassword, u.getRoles()));
+                    return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                            .password(newPassword)
+                            .build();
                 })
-                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+                .orElse(user);
     }
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package org.zgo.auth.infrastructure.service;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Immutable result of a successful access token verification.
+ * Signature, expiry, issuer and audience have already been checked when an instance exists.
+ * {@code id} is the jti claim, null for tokens issued before it was added.
+ */
+public record VerifiedToken(String id, String subject, List<String> roles, Instant issuedAt, Instant expiresAt) {
+
+    public VerifiedToken {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+    }
+}
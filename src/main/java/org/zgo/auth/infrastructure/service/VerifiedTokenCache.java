@@ -0,0 +1,108 @@
+package org.zgo.auth.infrastructure.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.util.TokenDigests;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Bounded cache of verified access tokens, keyed by the SHA-256 digest of the compact token.
+ * A hit skips signature verification; every entry expires no later than the token's exp, and the whole
+ * cache is dropped by {@link #invalidateAll()} when the key set changes, so a retired key never outlives
+ * its results. When disabled every lookup goes straight to the verifier.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Cache<String, VerifiedToken> cache;
+    // bumped by invalidateAll: a result verified against an older key set is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public VerifiedTokenCache(SecurityProperties securityProperties, MeterRegistry meterRegistry) {
+        SecurityProperties.VerificationCache config = securityProperties.getJwt().getVerificationCache();
+        if (!config.isEnabled()) {
+            this.cache = null;
+            return;
+        }
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(config.getMaxEntries())
+                .expireAfter(new UntilTokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwt.verified-tokens");
+    }
+
+    /**
+     * Returns the cached verification result for the token, or runs the verifier and caches its result.
+     * Verification failures propagate and are never cached.
+     */
+    public VerifiedToken get(String token, Function<String, VerifiedToken> verifier) {
+        if (cache == null) {
+            return verifier.apply(token);
+        }
+        String key = TokenDigests.sha256Base64Url(token);
+        VerifiedToken verified = cache.getIfPresent(key);
+        if (verified == null) {
+            // verified outside the cache lock: a duplicate verification on a race is cheaper than a pinned carrier
+            long verifiedIn = generation.get();
+            verified = verifier.apply(token);
+            if (generation.get() == verifiedIn) {
+                cache.put(key, verified);
+            }
+            return verified;
+        }
+        if (!verified.expiresAt().isAfter(Instant.now())) {
+            // Expired between two cache maintenance cycles: drop it and let the verifier reject it
+            cache.invalidate(key);
+            return verifier.apply(token);
+        }
+        return verified;
+    }
+
+    /**
+     * Drops every cached result. Called when the key set is replaced; verifications already in flight
+     * are not cached either.
+     */
+    public void invalidateAll() {
+        if (cache != null) {
+            generation.incrementAndGet();
+            cache.invalidateAll();
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+
+    public CacheStats stats() {
+        return cache != null ? cache.stats() : CacheStats.empty();
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, VerifiedToken> {
+
+        @Override
+        public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+            return Math.max(0L, Duration.between(Instant.now(), value.expiresAt()).toNanos());
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package org.zgo.auth.infrastructure.service.key;
+
+import io.jsonwebtoken.security.Jwks;
+import jakarta.annotation.PostConstruct;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link JwtKeySet}. Readers take a consistent snapshot with {@link #current()};
+ * a new key set replaces the old one with a single atomic reference update, after which the registered
+ * listeners run so that anything derived from the old key set can be dropped.
+ */
+@Component
+public class JwtKeyRing {
+
+    private final SecurityProperties securityProperties;
+    private final ResourceLoader resourceLoader;
+    private final AtomicReference<JwtKeySet> current = new AtomicReference<>();
+    private final List<Runnable> replaceListeners = new CopyOnWriteArrayList<>();
+
+    public JwtKeyRing(SecurityProperties securityProperties, ResourceLoader resourceLoader) {
+        this.securityProperties = securityProperties;
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void init() {
+        SecurityProperties.Jwt jwt = securityProperties.getJwt();
+        SecurityProperties.SigningAlgorithm algorithm = jwt.getAlgorithm();
+        SigningKey signingKey;
+        try {
+            // Env vars take precedence over the configured PEM resources
+            String privatePem = System.getenv("APP_JWT_PRIVATE_KEY");
+            String publicPem = System.getenv("APP_JWT_PUBLIC_KEY");
+
+            if (privatePem == null || privatePem.isBlank()) {
+                privatePem = readResource(jwt.getPrivateKeyPath());
+            }
+            if (publicPem == null || publicPem.isBlank()) {
+                publicPem = readResource(jwt.getPublicKeyPath());
+            }
+
+            PrivateKey privateKey = PemKeys.privateKey(privatePem, algorithm.getKeyAlgorithm());
+            PublicKey publicKey = PemKeys.publicKey(publicPem, algorithm.getKeyAlgorithm());
+            String kid = jwt.getKeyId() != null && !jwt.getKeyId().isBlank() ? jwt.getKeyId() : thumbprint(publicKey);
+            signingKey = new SigningKey(kid, algorithm, privateKey, publicKey);
+        } catch (Exception ex) {
+            throw new IllegalStateException("Failed to load " + algorithm.getKeyAlgorithm() + " keys for " + algorithm, ex);
+        }
+
+        List<SigningKey> retired = new ArrayList<>();
+        for (SecurityProperties.RetiredKey retiredKey : jwt.getRetiredKeys()) {
+            try {
+                PublicKey publicKey = PemKeys.publicKey(
+                        readResource(retiredKey.getPublicKeyPath()), retiredKey.getAlgorithm().getKeyAlgorithm());
+                retired.add(new SigningKey(retiredKey.getKid(), retiredKey.getAlgorithm(), null, publicKey));
+            } catch (Exception ex) {
+                throw new IllegalStateException("Failed to load retired key " + retiredKey.getKid(), ex);
+            }
+        }
+
+        current.set(new JwtKeySet(signingKey, retired));
+    }
+
+    public JwtKeySet current() {
+        return current.get();
+    }
+
+    public void replace(JwtKeySet keySet) {
+        current.set(keySet);
+        replaceListeners.forEach(Runnable::run);
+    }
+
+    /**
+     * Runs the listener on the replacing thread after every {@link #replace}.
+     */
+    public void onReplace(Runnable listener) {
+        replaceListeners.add(listener);
+    }
+
+    /**
+     * RFC 7638 JWK thumbprint (SHA-256), used as the default kid.
+     */
+    public static String thumbprint(PublicKey publicKey) {
+        return Jwks.builder().key(publicKey).idFromThumbprint().build().getId();
+    }
+
+    private String readResource(String location) throws Exception {
+        try (var in = resourceLoader.getResource(location).getInputStream()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,242 @@
+package org.zgo.auth.infrastructure.service.key;
+
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Rotates the JWT signing key in the background.
+ *
+ * Key pairs are persisted as PEM files in a keystore directory shared by all replicas. A new pair is generated
+ * on the scheduler thread and first published for verification only; it signs once it is
+ * max(check-interval, jwks-max-age) old, by which time every replica has loaded it and every JWKS client has
+ * refreshed, so no token is issued under a kid a verifier cannot resolve. Promotion is a single
+ * {@link JwtKeyRing#replace} call, so issuing threads never wait. Replaced keys keep verifying for the overlap window.
+ */
+@Component
+@ConditionalOnProperty(prefix = "security.jwt.rotation", name = "enabled", havingValue = "true")
+public class JwtKeyRotationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(JwtKeyRotationService.class);
+
+    private static final String PUBLIC_SUFFIX = ".pub.pem";
+    private static final String PRIVATE_SUFFIX = ".key.pem";
+
+    private final JwtKeyRing keyRing;
+    private final SecurityProperties.Jwt jwt;
+    private final Path keystoreDir;
+    private final Clock clock;
+    private final SecureRandom random = new SecureRandom();
+
+    // The statically configured key keeps verifying for one overlap window after startup
+    private SigningKey configuredKey;
+    private Instant startedAt;
+
+    @Autowired
+    public JwtKeyRotationService(JwtKeyRing keyRing, SecurityProperties securityProperties) {
+        this(keyRing, securityProperties, Clock.systemUTC());
+    }
+
+    public JwtKeyRotationService(JwtKeyRing keyRing, SecurityProperties securityProperties, Clock clock) {
+        this.keyRing = keyRing;
+        this.clock = clock;
+        this.jwt = securityProperties.getJwt();
+        this.keystoreDir = Paths.get(jwt.getRotation().getKeystoreDir());
+    }
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(keystoreDir);
+        this.configuredKey = keyRing.current().signingKey();
+        this.startedAt = clock.instant();
+        rotate();
+    }
+
+    @Scheduled(fixedDelayString = "${security.jwt.rotation.check-interval:60000}",
+            initialDelayString = "${security.jwt.rotation.check-interval:60000}")
+    public void rotateIfDue() {
+        try {
+            rotate();
+        } catch (Exception ex) {
+            // the current key set stays in place; the next check retries
+            logger.error("JWT signing key rotation failed: {}", ex.getMessage(), ex);
+        }
+    }
+
+    private void rotate() throws IOException {
+        Instant now = clock.instant();
+        List<StoredKey> stored = loadStoredKeys();
+        Duration lead = publicationLead();
+
+        // generated one lead ahead of the rotation interval, so it is promoted when the interval ends
+        Duration generateAfter = Duration.ofMillis(jwt.getRotation().getInterval()).minus(lead);
+        StoredKey newest = stored.isEmpty() ? null : stored.get(stored.size() - 1);
+        if (newest == null || !newest.key().canSign() || !newest.createdAt().plus(generateAfter).isAfter(now)) {
+            stored.add(generate(now));
+        }
+
+        int signing = -1;
+        for (int i = stored.size() - 1; i >= 0 && signing < 0; i--) {
+            if (stored.get(i).key().canSign() && !stored.get(i).createdAt().plus(lead).isAfter(now)) {
+                signing = i;
+            }
+        }
+
+        List<SigningKey> verifying = new ArrayList<>();
+        // published, not yet signing: every replica and JWKS client learns them before the first token
+        for (int i = stored.size() - 1; i > signing; i--) {
+            verifying.add(stored.get(i).key());
+        }
+        // A replica may keep signing with a replaced key until its next check
+        Duration retention = overlap().plusMillis(jwt.getRotation().getCheckInterval());
+        for (int i = signing - 1; i >= 0; i--) {
+            Instant replacedAt = stored.get(i + 1).createdAt().plus(lead);
+            if (replacedAt.plus(retention).isAfter(now)) {
+                verifying.add(stored.get(i).key());
+            } else {
+                delete(stored.get(i));
+            }
+        }
+
+        // The configured key signs until the first generated key is promoted, then verifies for one retention
+        SigningKey signingKey = signing >= 0 ? stored.get(signing).key() : configuredKey;
+        if (signingKey != configuredKey) {
+            Instant firstPromotion = stored.get(0).createdAt().plus(lead);
+            if (startedAt.plus(retention).isAfter(now) || firstPromotion.plus(retention).isAfter(now)) {
+                verifying.add(configuredKey);
+            }
+        }
+
+        JwtKeySet current = keyRing.current();
+        if (!current.signingKey().kid().equals(signingKey.kid()) || !sameKids(current, signingKey, verifying)) {
+            keyRing.replace(new JwtKeySet(signingKey, verifying));
+            logger.info("JWT signing key is now {} ({} other key(s) verifying)", signingKey.kid(), verifying.size());
+        }
+    }
+
+    private static boolean sameKids(JwtKeySet current, SigningKey signingKey, List<SigningKey> verifying) {
+        Set<String> kids = new HashSet<>();
+        kids.add(signingKey.kid());
+        verifying.forEach(key -> kids.add(key.kid()));
+        return current.keys().size() == kids.size()
+                && current.keys().stream().allMatch(key -> kids.contains(key.kid()));
+    }
+
+    /**
+     * How long a new key is published before it signs: other replicas load it at their next check, and JWKS
+     * clients refresh within jwks-max-age.
+     */
+    private Duration publicationLead() {
+        return Duration.ofMillis(Math.max(jwt.getRotation().getCheckInterval(), jwt.getJwksMaxAge()));
+    }
+
+    /**
+     * Never shorter than the access token lifetime: a token must stay verifiable until it expires.
+     */
+    private Duration overlap() {
+        Long overlap = jwt.getRotation().getOverlap();
+        long millis = Math.max(overlap != null ? overlap : 0L, jwt.getAccessTokenExpiration());
+        return Duration.ofMillis(millis);
+    }
+
+    private StoredKey generate(Instant now) throws IOException {
+        String kid = "k" + now.toEpochMilli() + "-" + HexFormat.of().formatHex(nextRandomBytes(4));
+        SigningKey key = SigningKey.generate(kid, jwt.getAlgorithm());
+        String baseName = kid + "." + key.algorithm().name();
+        // private key first: a key is only picked up once its public key file exists
+        writeAtomically(keystoreDir.resolve(baseName + PRIVATE_SUFFIX),
+                PemKeys.toPem("PRIVATE KEY", key.privateKey().getEncoded()), true);
+        writeAtomically(keystoreDir.resolve(baseName + PUBLIC_SUFFIX),
+                PemKeys.toPem("PUBLIC KEY", key.publicKey().getEncoded()), false);
+        logger.info("Generated JWT signing key {} in {}", kid, keystoreDir);
+        return new StoredKey(key, now);
+    }
+
+    private byte[] nextRandomBytes(int length) {
+        // nextBytes never blocks on the entropy pool, unlike generateSeed
+        byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private List<StoredKey> loadStoredKeys() throws IOException {
+        List<StoredKey> keys = new ArrayList<>();
+        try (Stream<Path> files = Files.list(keystoreDir)) {
+            for (Path publicFile : files.filter(f -> f.getFileName().toString().endsWith(PUBLIC_SUFFIX)).toList()) {
+                try {
+                    keys.add(load(publicFile));
+                } catch (Exception ex) {
+                    logger.warn("Skipping unreadable key file {}: {}", publicFile, ex.getMessage());
+                }
+            }
+        }
+        keys.sort(Comparator.comparing(StoredKey::createdAt));
+        return keys;
+    }
+
+    // File name: <kid>.<algorithm>.pub.pem, where kid = k<epochMillis>-<random hex>
+    private StoredKey load(Path publicFile) throws Exception {
+        String name = publicFile.getFileName().toString();
+        String baseName = name.substring(0, name.length() - PUBLIC_SUFFIX.length());
+        int dot = baseName.lastIndexOf('.');
+        String kid = baseName.substring(0, dot);
+        SecurityProperties.SigningAlgorithm algorithm = SecurityProperties.SigningAlgorithm.valueOf(baseName.substring(dot + 1));
+        Instant createdAt = Instant.ofEpochMilli(Long.parseLong(kid.substring(1, kid.indexOf('-'))));
+
+        var publicKey = PemKeys.publicKey(Files.readString(publicFile), algorithm.getKeyAlgorithm());
+        Path privateFile = keystoreDir.resolve(baseName + PRIVATE_SUFFIX);
+        var privateKey = Files.exists(privateFile)
+                ? PemKeys.privateKey(Files.readString(privateFile), algorithm.getKeyAlgorithm())
+                : null;
+        return new StoredKey(new SigningKey(kid, algorithm, privateKey, publicKey), createdAt);
+    }
+
+    private void delete(StoredKey key) throws IOException {
+        String baseName = key.key().kid() + "." + key.key().algorithm().name();
+        Files.deleteIfExists(keystoreDir.resolve(baseName + PRIVATE_SUFFIX));
+        Files.deleteIfExists(keystoreDir.resolve(baseName + PUBLIC_SUFFIX));
+        logger.info("Removed expired JWT key {}", key.key().kid());
+    }
+
+    private void writeAtomically(Path target, String content, boolean secret) throws IOException {
+        Path tmp = keystoreDir.resolve(target.getFileName() + ".tmp");
+        Files.deleteIfExists(tmp);
+        if (secret && keystoreDir.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            Files.createFile(tmp, PosixFilePermissions.asFileAttribute(PosixFilePermissions.fromString("rw-------")));
+        }
+        Files.writeString(tmp, content, StandardCharsets.US_ASCII);
+        try {
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (FileAlreadyExistsException ex) {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private record StoredKey(SigningKey key, Instant createdAt) {
+    }
+}
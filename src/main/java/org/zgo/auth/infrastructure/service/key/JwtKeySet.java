@@ -0,0 +1,82 @@
+package org.zgo.auth.infrastructure.service.key;
+
+import io.jsonwebtoken.security.Jwks;
+import io.jsonwebtoken.security.PublicJwk;
+import org.zgo.auth.infrastructure.util.TokenDigests;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PublicKey;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the JWT keys: the key used to sign new tokens plus every key still accepted
+ * for verification, indexed by kid. The JWKS document and its ETag are serialized once per snapshot.
+ */
+public final class JwtKeySet {
+
+    private final SigningKey signingKey;
+    private final Map<String, SigningKey> keysById;
+    private final byte[] jwks;
+    private final String etag;
+
+    public JwtKeySet(SigningKey signingKey, List<SigningKey> retiredKeys) {
+        if (!signingKey.canSign()) {
+            throw new IllegalArgumentException("Signing key " + signingKey.kid() + " has no private key");
+        }
+        Map<String, SigningKey> keys = new LinkedHashMap<>();
+        keys.put(signingKey.kid(), signingKey);
+        for (SigningKey retired : retiredKeys) {
+            // never keep private material for keys that no longer sign
+            keys.putIfAbsent(retired.kid(), retired.canSign() ? retired.retire() : retired);
+        }
+        this.signingKey = signingKey;
+        this.keysById = Collections.unmodifiableMap(keys);
+
+        String json = keys.values().stream()
+                .map(key -> Jwks.json(toJwk(key)))
+                .collect(Collectors.joining(",", "{\"keys\":[", "]}"));
+        this.jwks = json.getBytes(StandardCharsets.UTF_8);
+        this.etag = "\"" + TokenDigests.sha256Base64Url(json) + "\"";
+    }
+
+    public SigningKey signingKey() {
+        return signingKey;
+    }
+
+    /**
+     * Public key for the given kid, or null if the kid is unknown or no longer accepted.
+     */
+    public PublicKey verificationKey(String kid) {
+        SigningKey key = kid != null ? keysById.get(kid) : null;
+        return key != null ? key.publicKey() : null;
+    }
+
+    public Collection<SigningKey> keys() {
+        return keysById.values();
+    }
+
+    /**
+     * Pre-serialized JWKS document (public keys only).
+     */
+    public byte[] jwks() {
+        return jwks.clone();
+    }
+
+    public String etag() {
+        return etag;
+    }
+
+    private static PublicJwk<?> toJwk(SigningKey key) {
+        return Jwks.builder()
+                .key(key.publicKey())
+                .id(key.kid())
+                .algorithm(key.algorithm().name())
+                .publicKeyUse("sig")
+                .build();
+    }
+}
@@ -0,0 +1,47 @@
+package org.zgo.auth.infrastructure.service.key;
+
+import java.security.KeyFactory;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.Base64;
+
+/**
+ * PEM parsing helpers - tolerant with different PEM header/footer variants and whitespace.
+ * keyAlgorithm is the JCA name: RSA, EC (P-256) or Ed25519.
+ */
+public final class PemKeys {
+
+    private PemKeys() {
+    }
+
+    public static PrivateKey privateKey(String pem, String keyAlgorithm) throws Exception {
+        PKCS8EncodedKeySpec keySpec = new PKCS8EncodedKeySpec(decode(pem));
+        KeyFactory kf = KeyFactory.getInstance(keyAlgorithm);
+        return kf.generatePrivate(keySpec);
+    }
+
+    public static PublicKey publicKey(String pem, String keyAlgorithm) throws Exception {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(decode(pem));
+        KeyFactory kf = KeyFactory.getInstance(keyAlgorithm);
+        return kf.generatePublic(spec);
+    }
+
+    /**
+     * Encodes DER bytes as PEM, e.g. type "PRIVATE KEY" (PKCS#8) or "PUBLIC KEY" (X.509).
+     */
+    public static String toPem(String type, byte[] der) {
+        return "-----BEGIN " + type + "-----\n"
+                + Base64.getMimeEncoder(64, new byte[]{'\n'}).encodeToString(der)
+                + "\n-----END " + type + "-----\n";
+    }
+
+    private static byte[] decode(String pem) {
+        String clean = pem
+                .replaceAll("-----BEGIN [^-]+-----", "")
+                .replaceAll("-----END [^-]+-----", "")
+                .replaceAll("\\s", "");
+        return Base64.getDecoder().decode(clean);
+    }
+}
@@ -0,0 +1,55 @@
+package org.zgo.auth.infrastructure.service.key;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.SignatureAlgorithm;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.spec.ECGenParameterSpec;
+
+/**
+ * A JWT key identified by its kid. Retired keys have no private key and are only used for verification.
+ */
+public record SigningKey(String kid,
+                         SecurityProperties.SigningAlgorithm algorithm,
+                         PrivateKey privateKey,
+                         PublicKey publicKey) {
+
+    public boolean canSign() {
+        return privateKey != null;
+    }
+
+    public SigningKey retire() {
+        return new SigningKey(kid, algorithm, null, publicKey);
+    }
+
+    /**
+     * Generates a fresh key pair for the algorithm: RSA-2048, EC P-256 or Ed25519.
+     */
+    public static SigningKey generate(String kid, SecurityProperties.SigningAlgorithm algorithm) {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance(algorithm.getKeyAlgorithm());
+            switch (algorithm) {
+                case RS256 -> generator.initialize(2048);
+                case ES256 -> generator.initialize(new ECGenParameterSpec("secp256r1"));
+                case EdDSA -> { }
+            }
+            KeyPair keyPair = generator.generateKeyPair();
+            return new SigningKey(kid, algorithm, keyPair.getPrivate(), keyPair.getPublic());
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("Failed to generate " + algorithm + " key pair", ex);
+        }
+    }
+
+    public SignatureAlgorithm signatureAlgorithm() {
+        return switch (algorithm) {
+            case RS256 -> Jwts.SIG.RS256;
+            case ES256 -> Jwts.SIG.ES256;
+            case EdDSA -> Jwts.SIG.EdDSA;
+        };
+    }
+}
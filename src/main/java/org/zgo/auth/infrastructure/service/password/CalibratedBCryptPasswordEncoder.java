@@ -0,0 +1,83 @@
+package org.zgo.auth.infrastructure.service.password;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder that reports every stored hash whose cost differs from its own as needing re-encoding,
+ * so Spring Security rehashes it after a successful login (upgrade or downgrade).
+ */
+public class CalibratedBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(CalibratedBCryptPasswordEncoder.class);
+
+    private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+    private static final String SAMPLE_PASSWORD = "calibration-password";
+    private static final int SAMPLES = 3;
+
+    private final int strength;
+
+    public CalibratedBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    public int getStrength() {
+        return strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != strength;
+    }
+
+    /**
+     * Picks the highest cost in [minStrength, maxStrength] whose measured hash time stays within the target.
+     * Each step doubles the work, so the search stops at the first cost that overshoots.
+     *
+     * @throws IllegalArgumentException if the range is empty or not within 4..31
+     */
+    public static int calibrate(long targetLatencyMillis, int minStrength, int maxStrength) {
+        if (minStrength < 4 || maxStrength > 31 || minStrength > maxStrength) {
+            throw new IllegalArgumentException("BCrypt strength range must lie within 4..31, got "
+                    + minStrength + ".." + maxStrength);
+        }
+        int chosen = minStrength;
+        long chosenNanos = measure(minStrength);
+        for (int strength = minStrength + 1; strength <= maxStrength; strength++) {
+            // skip the measurement when even a perfect doubling would overshoot
+            if (chosenNanos * 2 > targetLatencyMillis * 1_000_000L) {
+                break;
+            }
+            long nanos = measure(strength);
+            if (nanos > targetLatencyMillis * 1_000_000L) {
+                break;
+            }
+            chosen = strength;
+            chosenNanos = nanos;
+        }
+        logger.info("BCrypt cost calibrated to {} ({} ms per hash, target {} ms)",
+                chosen, chosenNanos / 1_000_000L, targetLatencyMillis);
+        return chosen;
+    }
+
+    // Fastest of a few runs, so a GC pause or JIT warm-up does not push the cost down
+    private static long measure(int strength) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -0,0 +1,115 @@
+package org.zgo.auth.infrastructure.service.ratelimit;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Token bucket rate limiter with lazy refill, stored lock-free in a fixed-size array.
+ *
+ * Each bucket is one {@code long}: a 16-bit key fingerprint and the 48-bit "theoretical arrival time" of the
+ * generic cell rate algorithm (GCRA), which is a token bucket that refills on read instead of on a timer.
+ * A key hashes to a slot and probes a few neighbours; updates are a single CAS on the slot.
+ *
+ * Memory never grows: a bucket whose arrival time has passed is full again, so its slot is free for any key.
+ * When every probed slot still holds a bucket that is not full, the new key is refused until the first of them
+ * refills: evicting a throttled bucket would hand its key a fresh burst. Keys whose fingerprint and slot collide
+ * share a bucket and are limited together.
+ */
+public class GcraRateLimiter {
+
+    private static final int PROBES = 8;
+    private static final int FINGERPRINT_SHIFT = 48;
+    private static final long TIME_MASK = (1L << FINGERPRINT_SHIFT) - 1;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final long emissionInterval;
+    private final long burstTolerance;
+    private final long epoch;
+
+    /**
+     * @param capacity     tokens in a full bucket (maximum burst)
+     * @param refillPeriod milliseconds to refill an empty bucket
+     * @param slots        bucket storage size, rounded up to a power of two
+     */
+    public GcraRateLimiter(int capacity, long refillPeriod, int slots) {
+        int size = Integer.highestOneBit(Math.max(PROBES, slots - 1) << 1);
+        this.slots = new AtomicLongArray(size);
+        this.mask = size - 1;
+        this.emissionInterval = Math.max(1L, refillPeriod / capacity);
+        this.burstTolerance = emissionInterval * capacity;
+        // times are stored relative to this instant, one below so a stored time is never zero
+        this.epoch = System.currentTimeMillis() - 1;
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 if allowed, otherwise the milliseconds until a token is available
+     */
+    public long tryAcquire(String key, long nowMillis) {
+        long hash = hash(key);
+        long fingerprint = (hash >>> FINGERPRINT_SHIFT) | 1L;
+        int home = (int) hash & mask;
+        long now = nowMillis - epoch;
+
+        retry:
+        while (true) {
+            int victim = home;
+            long victimValue = 0;
+            long victimTat = Long.MAX_VALUE;
+            for (int probe = 0; probe < PROBES; probe++) {
+                int index = (home + probe) & mask;
+                long value = slots.get(index);
+                long tat = value & TIME_MASK;
+                if (value != 0 && (value >>> FINGERPRINT_SHIFT) == fingerprint) {
+                    long result = update(index, value, fingerprint, Math.max(tat, now), now);
+                    if (result < 0) {
+                        continue retry; // lost a race on this slot
+                    }
+                    return result;
+                }
+                if (tat < victimTat) {
+                    victim = index;
+                    victimValue = value;
+                    victimTat = tat;
+                }
+            }
+            if (victimTat > now) {
+                // every probed bucket is still refilling: fail closed until the first one is full again
+                return victimTat - now;
+            }
+            // new key (or one whose bucket refilled and was reused): claim a free slot
+            long result = update(victim, victimValue, fingerprint, now, now);
+            if (result >= 0) {
+                return result;
+            }
+        }
+    }
+
+    /**
+     * @return 0 if a token was taken, the wait in milliseconds if the bucket is empty, or -1 if the CAS lost
+     */
+    private long update(int index, long expected, long fingerprint, long tat, long now) {
+        long newTat = tat + emissionInterval;
+        long wait = newTat - now - burstTolerance;
+        if (wait > 0) {
+            return wait;
+        }
+        return slots.compareAndSet(index, expected, (fingerprint << FINGERPRINT_SHIFT) | newTat) ? 0 : -1;
+    }
+
+    private static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h = (h ^ b) * 0x100000001b3L;
+        }
+        // murmur3 finalizer
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,74 @@
+package org.zgo.auth.infrastructure.service.ratelimit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.zgo.auth.domain.exception.custom.TooManyRequestsException;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throttles login attempts per client IP and per username before any password is hashed.
+ * Counters are published as {@code auth.login.rate_limit} with {@code key} and {@code outcome} tags.
+ */
+@Component
+public class LoginRateLimiter {
+
+    private final boolean enabled;
+    private final GcraRateLimiter byIp;
+    private final GcraRateLimiter byUsername;
+    private final Counter ipRejected;
+    private final Counter usernameRejected;
+    private final Counter allowed;
+
+    public LoginRateLimiter(SecurityProperties securityProperties, MeterRegistry meterRegistry) {
+        SecurityProperties.LoginRateLimit config = securityProperties.getLoginRateLimit();
+        this.enabled = config.isEnabled();
+        this.byIp = newLimiter(config.getPerIp(), config.getSlots());
+        this.byUsername = newLimiter(config.getPerUsername(), config.getSlots());
+        this.ipRejected = counter(meterRegistry, "ip", "rejected");
+        this.usernameRejected = counter(meterRegistry, "username", "rejected");
+        this.allowed = counter(meterRegistry, "all", "allowed");
+    }
+
+    /**
+     * @throws TooManyRequestsException if either the IP or the username is out of attempts
+     */
+    public void check(String clientIp, String username) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long wait = byIp.tryAcquire(clientIp, now);
+        if (wait > 0) {
+            ipRejected.increment();
+            throw new TooManyRequestsException("Too many login attempts from this address", toSeconds(wait));
+        }
+        if (username != null) {
+            // case variants of a username must not get separate budgets
+            wait = byUsername.tryAcquire(username.toLowerCase(Locale.ROOT), now);
+            if (wait > 0) {
+                usernameRejected.increment();
+                throw new TooManyRequestsException("Too many login attempts for this user", toSeconds(wait));
+            }
+        }
+        allowed.increment();
+    }
+
+    private static GcraRateLimiter newLimiter(SecurityProperties.Limit limit, int slots) {
+        return new GcraRateLimiter(limit.getCapacity(), limit.getRefillPeriod(), slots);
+    }
+
+    private static Counter counter(MeterRegistry registry, String key, String outcome) {
+        return Counter.builder("auth.login.rate_limit")
+                .tag("key", key)
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1L, TimeUnit.MILLISECONDS.toSeconds(millis + 999L));
+    }
+}
@@ -0,0 +1,30 @@
+package org.zgo.auth.infrastructure.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * SHA-256 helpers used to key or store tokens without keeping the raw value.
+ */
+public final class TokenDigests {
+
+    private static final Base64.Encoder BASE64_URL = Base64.getUrlEncoder().withoutPadding();
+
+    private TokenDigests() {
+    }
+
+    public static byte[] sha256(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException ex) {
+            // SHA-256 is mandatory on every Java platform
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    public static String sha256Base64Url(String token) {
+        return BASE64_URL.encodeToString(sha256(token));
+    }
+}
@@ -0,0 +1,63 @@
+package org.zgo.auth.infrastructure.web.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One entry of the introspection result, named as in RFC 7662; an inactive token carries only {@code active}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class IntrospectionResponse {
+    private boolean active;
+    private String sub;
+    private List<String> roles;
+    // seconds since the epoch
+    private Long exp;
+
+    public IntrospectionResponse() {
+    }
+
+    public IntrospectionResponse(boolean active, String sub, List<String> roles, Long exp) {
+        this.active = active;
+        this.sub = sub;
+        this.roles = roles;
+        this.exp = exp;
+    }
+
+    public static IntrospectionResponse inactive() {
+        return new IntrospectionResponse(false, null, null, null);
+    }
+
+    public boolean isActive() {
+        return active;
+    }
+
+    public void setActive(boolean active) {
+        this.active = active;
+    }
+
+    public String getSub() {
+        return sub;
+    }
+
+    public void setSub(String sub) {
+        this.sub = sub;
+    }
+
+    public List<String> getRoles() {
+        return roles;
+    }
+
+    public void setRoles(List<String> roles) {
+        this.roles = roles;
+    }
+
+    public Long getExp() {
+        return exp;
+    }
+
+    public void setExp(Long exp) {
+        this.exp = exp;
+    }
+}
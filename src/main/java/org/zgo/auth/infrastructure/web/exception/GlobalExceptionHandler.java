@@ -1,5 +1,6 @@
 package org.zgo.auth.infrastructure.web.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -8,6 +9,8 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 import org.zgo.auth.domain.exception.custom.InvalidCredentialsException;
+import org.zgo.auth.domain.exception.custom.ServiceUnavailableException;
+import org.zgo.auth.domain.exception.custom.TooManyRequestsException;
 import org.zgo.auth.domain.exception.custom.UserAlreadyExistsException;
 import org.zgo.auth.infrastructure.web.dto.response.ErrorResponse;
 
@@ -21,6 +24,20 @@ public class GlobalExceptionHandler {
                 .body(new ErrorResponse("User exists", ex.getMessage()));
     }
 
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ErrorResponse> handleServiceUnavailable(ServiceUnavailableException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse("Service unavailable", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ErrorResponse> handleTooManyRequests(TooManyRequestsException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(new ErrorResponse("Too many requests", ex.getMessage()));
+    }
+
     @ExceptionHandler({InvalidCredentialsException.class, BadCredentialsException.class})
     public ResponseEntity<ErrorResponse> handleInvalidCredentials(Exception ex) {
         return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
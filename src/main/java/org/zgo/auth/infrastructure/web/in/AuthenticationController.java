@@ -1,6 +1,15 @@
 package org.zgo.auth.infrastructure.web.in;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
@@ -8,25 +17,43 @@ import org.springframework.web.bind.annotation.*;
 import org.zgo.auth.application.port.in.AuthUseCase;
 import org.zgo.auth.application.port.in.RefreshTokenUseCase;
 import org.zgo.auth.application.port.out.UserPersistencePort;
+import org.zgo.auth.infrastructure.service.TokenIntrospector;
+import org.zgo.auth.infrastructure.service.ratelimit.LoginRateLimiter;
 import org.zgo.auth.infrastructure.web.dto.request.LoginRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RefreshTokenRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RegisterRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RevokeRefreshRequest;
 import org.zgo.auth.infrastructure.web.dto.response.AuthenticationResponse;
+import org.zgo.auth.infrastructure.web.dto.response.IntrospectionResponse;
 import org.zgo.auth.infrastructure.web.dto.response.UserResponse;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/auth")
 public class AuthenticationController {
 
+    private static final String BEARER_PREFIX = "Bearer ";
+
     private final AuthUseCase authUseCase;
     private final UserPersistencePort userPort;
     private final RefreshTokenUseCase refreshTokenUseCase;
+    private final LoginRateLimiter loginRateLimiter;
+    private final TokenIntrospector tokenIntrospector;
+    private final ObjectMapper objectMapper;
 
-    public AuthenticationController(AuthUseCase authUseCase, UserPersistencePort userPort, RefreshTokenUseCase refreshTokenUseCase) {
+    public AuthenticationController(AuthUseCase authUseCase, UserPersistencePort userPort, RefreshTokenUseCase refreshTokenUseCase,
+                                    LoginRateLimiter loginRateLimiter, TokenIntrospector tokenIntrospector,
+                                    ObjectMapper objectMapper) {
         this.authUseCase = authUseCase;
         this.userPort = userPort;
         this.refreshTokenUseCase = refreshTokenUseCase;
+        this.loginRateLimiter = loginRateLimiter;
+        this.tokenIntrospector = tokenIntrospector;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/register")
@@ -36,7 +63,9 @@ public class AuthenticationController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<AuthenticationResponse> login(@Valid @RequestBody LoginRequest request) {
+    public ResponseEntity<AuthenticationResponse> login(@Valid @RequestBody LoginRequest request, HttpServletRequest httpRequest) {
+        // getRemoteAddr honours X-Forwarded-For only when server.forward-headers-strategy is set
+        loginRateLimiter.check(httpRequest.getRemoteAddr(), request.getUsername());
         AuthenticationResponse response = authUseCase.login(request);
         return ResponseEntity.ok(response);
     }
@@ -47,15 +76,109 @@ public class AuthenticationController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Revokes the refresh token in the body and/or the access token in the Authorization header.
+     */
     @PostMapping("/revoke")
-    public ResponseEntity<?> revoke(@Valid @RequestBody RevokeRefreshRequest request) {
-        if (request.getRefreshToken() == null || request.getRefreshToken().isBlank()) {
+    public ResponseEntity<?> revoke(@RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+                                    @Valid @RequestBody(required = false) RevokeRefreshRequest request) {
+        boolean hasRefreshToken = request != null && request.getRefreshToken() != null && !request.getRefreshToken().isBlank();
+        boolean hasAccessToken = authorization != null && authorization.startsWith(BEARER_PREFIX);
+        if (!hasRefreshToken && !hasAccessToken) {
             return ResponseEntity.badRequest().build();
         }
-        refreshTokenUseCase.revokeRefreshToken(request.getRefreshToken());
+        if (hasRefreshToken) {
+            refreshTokenUseCase.revokeRefreshToken(request.getRefreshToken());
+        }
+        if (hasAccessToken) {
+            authUseCase.revokeAccessToken(authorization.substring(BEARER_PREFIX.length()));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Logs the caller out everywhere: revokes all of their refresh tokens and the access token of this request.
+     * Other access tokens already issued stay valid until they expire.
+     */
+    @PostMapping("/revoke-all")
+    public ResponseEntity<?> revokeAll(Authentication authentication,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        refreshTokenUseCase.revokeAllForUser(authentication.getName());
+        if (authorization != null && authorization.startsWith(BEARER_PREFIX)) {
+            authUseCase.revokeAccessToken(authorization.substring(BEARER_PREFIX.length()));
+        }
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Revokes all refresh tokens of any user, e.g. for a compromised account. Needs ROLE_SERVICE rather than
+     * ROLE_ADMIN, which /register hands out on request.
+     */
+    @PostMapping("/admin/users/{username}/revoke-all")
+    @PreAuthorize("hasAuthority('ROLE_SERVICE')")
+    public ResponseEntity<?> revokeAllForUser(@PathVariable String username) {
+        refreshTokenUseCase.revokeAllForUser(username);
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Verifies a batch of access tokens for a resource server or gateway. The body is {@code {"tokens": [...]}}; the
+     * response is a JSON array with one entry per token, in request order, written as the results come in rather than
+     * built in memory first.
+     */
+    @PostMapping(value = "/introspect", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('ROLE_SERVICE')")
+    public void introspect(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        List<String> tokens = readTokens(request.getInputStream());
+        if (tokens == null) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        // written on the request thread: an async dispatch would need its own authorization rule
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        try (JsonGenerator json = objectMapper.createGenerator(response.getOutputStream())) {
+            // a batch that fails halfway must not end in a well-formed but short array
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            json.writeStartArray();
+            tokenIntrospector.introspect(tokens, token -> json.writeObject(token
+                    .map(t -> new IntrospectionResponse(true, t.subject(), t.roles(), t.expiresAt().getEpochSecond()))
+                    .orElseGet(IntrospectionResponse::inactive)));
+            json.writeEndArray();
+        }
+    }
+
+    /**
+     * Reads the tokens of an introspection request one by one, giving up as soon as there are more than the limit, so
+     * an oversized batch is neither buffered nor verified. Returns null when the body is not a non-empty batch.
+     */
+    private List<String> readTokens(InputStream body) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        try (JsonParser json = objectMapper.createParser(body)) {
+            if (json.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (json.nextToken() == JsonToken.FIELD_NAME) {
+                String field = json.currentName();
+                if (json.nextToken() != JsonToken.START_ARRAY || !"tokens".equals(field)) {
+                    json.skipChildren();
+                    continue;
+                }
+                while (json.nextToken() == JsonToken.VALUE_STRING) {
+                    if (tokens.size() == tokenIntrospector.maxTokens()) {
+                        return null;
+                    }
+                    tokens.add(json.getText());
+                }
+                if (json.currentToken() != JsonToken.END_ARRAY) {
+                    return null;
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            return null;
+        }
+        return tokens.isEmpty() ? null : tokens;
+    }
+
     @GetMapping("/me")
     public ResponseEntity<UserResponse> me(Authentication authentication) {
         if (authentication == null) return ResponseEntity.notFound().build();
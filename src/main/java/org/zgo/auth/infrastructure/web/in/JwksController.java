@@ -0,0 +1,45 @@
+package org.zgo.auth.infrastructure.web.in;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.key.JwtKeyRing;
+import org.zgo.auth.infrastructure.service.key.JwtKeySet;
+
+import java.time.Duration;
+
+/**
+ * Publishes the public verification keys so resource servers can validate tokens locally.
+ */
+@RestController
+public class JwksController {
+
+    private final JwtKeyRing keyRing;
+    private final CacheControl cacheControl;
+
+    public JwksController(JwtKeyRing keyRing, SecurityProperties securityProperties) {
+        this.keyRing = keyRing;
+        this.cacheControl = CacheControl.maxAge(Duration.ofMillis(securityProperties.getJwt().getJwksMaxAge())).cachePublic();
+    }
+
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        JwtKeySet keySet = keyRing.current();
+        if (keySet.etag().equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(keySet.etag())
+                    .cacheControl(cacheControl)
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .eTag(keySet.etag())
+                .cacheControl(cacheControl)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(keySet.jwks());
+    }
+}
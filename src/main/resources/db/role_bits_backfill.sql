@@ -0,0 +1,19 @@
+-- Moves roles from the user_roles collection table to the users.role_bits bitmask (see Role.bit()).
+-- Run once against a persistent database before deploying the role_bits version: ddl-auto=update
+-- cannot add a NOT NULL column to a populated table. The default in-memory H2 schema is recreated
+-- on every start and needs nothing.
+
+ALTER TABLE users ADD COLUMN role_bits INT DEFAULT 0 NOT NULL;
+
+-- each role appears at most once per user, so the sum of the bits is their OR
+UPDATE users SET role_bits = (
+    SELECT COALESCE(SUM(CASE ur.role
+                            WHEN 'ROLE_USER' THEN 1
+                            WHEN 'ROLE_ADMIN' THEN 2
+                            ELSE 0
+                        END), 0)
+    FROM user_roles ur
+    WHERE ur.user_id = users.id
+);
+
+DROP TABLE user_roles;
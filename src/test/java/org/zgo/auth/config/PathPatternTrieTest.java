@@ -0,0 +1,67 @@
+package org.zgo.auth.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.zgo.auth.infrastructure.config.filter.PathPatternTrie;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PathPatternTrieTest {
+
+    private final PathPatternTrie trie = PathPatternTrie.compile(List.of(
+            "/api/auth/login",
+            "/api/auth/revoke",
+            "/swagger-ui/**",
+            "/swagger-ui.html",
+            "/.well-known/jwks.json"
+    ));
+
+    @Test
+    public void exactPatterns_matchOnlyThatPath() {
+        assertThat(trie.matches("/api/auth/login")).isTrue();
+        assertThat(trie.matches("/api/auth/revoke")).isTrue();
+        assertThat(trie.matches("/api/auth/revoke-all")).isFalse();
+        assertThat(trie.matches("/api/auth/revoke/x")).isFalse();
+        assertThat(trie.matches("/api/auth")).isFalse();
+        assertThat(trie.matches("/.well-known/jwks.json")).isTrue();
+    }
+
+    @Test
+    public void subtreePatterns_matchTheDirectoryAndBelow() {
+        assertThat(trie.matches("/swagger-ui")).isTrue();
+        assertThat(trie.matches("/swagger-ui/")).isTrue();
+        assertThat(trie.matches("/swagger-ui/index.html")).isTrue();
+        assertThat(trie.matches("/swagger-ui.html")).isTrue();
+        assertThat(trie.matches("/swagger-uix")).isFalse();
+        assertThat(trie.matches("/api/auth/me")).isFalse();
+    }
+
+    @Test
+    public void requests_matchOnTheNormalizedPathWithinTheApplication() {
+        assertThat(trie.matches(request("", "/api/auth/./login"))).isTrue();
+        assertThat(trie.matches(request("", "//api/auth//login"))).isTrue();
+        assertThat(trie.matches(request("", "/api/auth/x/../login"))).isTrue();
+        assertThat(trie.matches(request("", "/api/auth/login;jsessionid=1"))).isTrue();
+        assertThat(trie.matches(request("", "/api/auth/%6Cogin"))).isTrue();
+        assertThat(trie.matches(request("/auth", "/auth/api/auth/login"))).isTrue();
+        assertThat(trie.matches(request("/auth", "/auth/swagger-ui/index.html"))).isTrue();
+
+        assertThat(trie.matches(request("/auth", "/auth/api/auth/me"))).isFalse();
+        assertThat(trie.matches(request("", "/api/auth/login/../me"))).isFalse();
+    }
+
+    @Test
+    public void otherWildcards_areRejected() {
+        assertThatThrownBy(() -> PathPatternTrie.compile(List.of("/api/*/login")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static MockHttpServletRequest request(String contextPath, String requestUri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", requestUri);
+        request.setContextPath(contextPath);
+        return request;
+    }
+}
@@ -16,7 +16,8 @@ import java.util.List;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// Own per-IP budget: every request comes from 127.0.0.1, and a cached context would share the counts
+@SpringBootTest(properties = "security.login-rate-limit.per-ip.capacity=1000")
 @AutoConfigureMockMvc
 public class AuthenticationControllerTest {
 
@@ -59,4 +60,54 @@ public class AuthenticationControllerTest {
                 .andExpect(jsonPath("$.accessToken").exists())
                 .andExpect(jsonPath("$.refreshToken").exists());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void register_duplicateUsernameOrEmail_conflict() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("dupUser");
+        reg.setEmail("dup@example.com");
+        reg.setPassword("secret");
+        reg.setRoles(List.of("USER"));
+
+        mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk());
+
+        mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("username already exists"));
+
+        reg.setUsername("dupUser2");
+        mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("email already exists"));
+    }
+
+    @Test
+    public void login_throttledPerUsername() throws Exception {
+        LoginRequest login = new LoginRequest();
+        login.setUsername("throttledUser");
+        login.setPassword("wrong");
+
+        // default budget: 5 attempts per username
+        for (int i = 0; i < 5; i++) {
+            mvc.perform(post("/api/auth/login")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(login)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        // case variants share the same budget
+        login.setUsername("ThrottledUser");
+        mvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(login)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+    }
+}
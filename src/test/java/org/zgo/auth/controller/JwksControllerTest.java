@@ -0,0 +1,58 @@
+package org.zgo.auth.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.zgo.auth.infrastructure.service.JwtService;
+
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+public class JwksControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @Test
+    public void jwks_publishesSigningKeyWithCacheHeaders() throws Exception {
+        MvcResult result = mvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kty").value("RSA"))
+                .andExpect(jsonPath("$.keys[0].alg").value("RS256"))
+                .andExpect(jsonPath("$.keys[0].use").value("sig"))
+                .andExpect(jsonPath("$.keys[0].d").doesNotExist())
+                .andReturn();
+
+        // Issued tokens carry the kid published in the key set
+        String token = jwtService.generateToken(
+                new User("jwksUser", "", List.of(new SimpleGrantedAuthority("ROLE_USER"))), Map.of());
+        String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+        String kid = mapper.readTree(header).get("kid").asText();
+        String publishedKid = mapper.readTree(result.getResponse().getContentAsString()).get("keys").get(0).get("kid").asText();
+        assertThat(kid).isEqualTo(publishedKid);
+
+        String etag = result.getResponse().getHeader("ETag");
+        mvc.perform(get("/.well-known/jwks.json").header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+    }
+}
@@ -0,0 +1,107 @@
+package org.zgo.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.AccessTokenDenylist;
+
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AccessTokenDenylistTest {
+
+    // one revolution of the 512-slot wheel is about a second
+    private static final long TICK_MILLIS = 2L;
+    private static final int EXPECTED_REVOCATIONS = 1000;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private AccessTokenDenylist denylist;
+
+    @BeforeEach
+    public void setup() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getJwt().getRevocation().setTick(TICK_MILLIS);
+        properties.getJwt().getRevocation().setExpectedRevocations(EXPECTED_REVOCATIONS);
+        denylist = new AccessTokenDenylist(properties, registry);
+    }
+
+    @Test
+    public void revokedToken_isDeniedUntilItExpires() throws InterruptedException {
+        Instant exp = Instant.now().plusMillis(300);
+        denylist.revoke("jti-1", exp);
+        denylist.revoke("already-expired", Instant.now().minusSeconds(1));
+
+        denylist.expire();
+        assertThat(denylist.isRevoked("jti-1")).isTrue();
+        assertThat(denylist.isRevoked("already-expired")).isFalse();
+        assertThat(denylist.isRevoked("never-revoked")).isFalse();
+
+        sleepUntil(exp.plusMillis(2 * TICK_MILLIS));
+        denylist.expire();
+        assertThat(denylist.isRevoked("jti-1")).isFalse();
+    }
+
+    @Test
+    public void countersGoBackDown_whenEntriesExpire() throws InterruptedException {
+        Instant exp = Instant.now().plusMillis(200);
+        for (int i = 0; i < 100; i++) {
+            denylist.revoke("jti-" + i, exp);
+        }
+        assertThat(gauge("auth.jwt.revoked")).isEqualTo(100);
+        assertThat(denylist.falsePositiveProbability()).isPositive();
+
+        sleepUntil(exp.plusMillis(2 * TICK_MILLIS));
+        denylist.expire();
+
+        assertThat(gauge("auth.jwt.revoked")).isZero();
+        // every counter is back at zero
+        assertThat(gauge("auth.jwt.revoked.filter.fpp")).isZero();
+    }
+
+    @Test
+    public void tokenExpiringMoreThanOneRevolutionAhead_survivesEarlierTurns() throws InterruptedException {
+        // 512 ticks of 2 ms: the entry's slot comes round once before its expiry tick
+        Instant exp = Instant.now().plusMillis(1500);
+        denylist.revoke("long-lived", exp);
+
+        Instant oneRevolution = Instant.now().plusMillis(512 * TICK_MILLIS + 100);
+        while (Instant.now().isBefore(oneRevolution)) {
+            denylist.expire();
+            Thread.sleep(20);
+        }
+        assertThat(Instant.now()).isBefore(exp);
+        assertThat(denylist.isRevoked("long-lived")).isTrue();
+
+        sleepUntil(exp.plusMillis(2 * TICK_MILLIS));
+        denylist.expire();
+        assertThat(denylist.isRevoked("long-lived")).isFalse();
+    }
+
+    @Test
+    public void falsePositiveRate_staysLowAtTheExpectedLoad() {
+        Instant exp = Instant.now().plusSeconds(60);
+        for (int i = 0; i < EXPECTED_REVOCATIONS; i++) {
+            denylist.revoke(UUID.randomUUID().toString(), exp);
+        }
+        // sized for 1-2%
+        assertThat(denylist.falsePositiveProbability()).isLessThan(0.02);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(denylist.isRevoked(UUID.randomUUID().toString())).isFalse();
+        }
+    }
+
+    private double gauge(String name) {
+        return registry.get(name).gauge().value();
+    }
+
+    private static void sleepUntil(Instant instant) throws InterruptedException {
+        long millis = instant.toEpochMilli() - System.currentTimeMillis();
+        if (millis > 0) {
+            Thread.sleep(millis);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package org.zgo.auth.service;
 
+import org.zgo.auth.application.port.out.UserPersistencePort;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.User;
+import org.zgo.auth.infrastructure.web.dto.request.LoginRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RegisterRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RefreshTokenRequest;
 import org.zgo.auth.infrastructure.web.dto.request.RevokeRefreshRequest;
 import org.zgo.auth.infrastructure.persistence.entity.RefreshTokenEntity;
+import org.zgo.auth.infrastructure.persistence.entity.UserEntity;
 import org.zgo.auth.infrastructure.persistence.repository.RefreshTokenRepository;
 import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
+import org.zgo.auth.infrastructure.util.TokenDigests;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.*;
@@ -13,10 +19,19 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -36,6 +51,9 @@ public class AuthServiceIntegrationTest {
     @Autowired
     private RefreshTokenRepository refreshTokenRepository;
 
+    @Autowired
+    private UserPersistencePort userPort;
+
     private final ObjectMapper mapper = new ObjectMapper();
 
     @BeforeEach
@@ -83,12 +101,12 @@ public class AuthServiceIntegrationTest {
         assertThat(newRefreshToken).isNotEqualTo(originalRefreshToken);
 
         // original token must be revoked in DB
-        Optional<RefreshTokenEntity> originalEntity = refreshTokenRepository.findByToken(originalRefreshToken);
+        Optional<RefreshTokenEntity> originalEntity = refreshTokenRepository.findByTokenHash(TokenDigests.sha256(originalRefreshToken));
         assertThat(originalEntity).isPresent();
         assertThat(originalEntity.get().isRevoked()).isTrue();
 
         // new token exists and not revoked
-        Optional<RefreshTokenEntity> newEntity = refreshTokenRepository.findByToken(newRefreshToken);
+        Optional<RefreshTokenEntity> newEntity = refreshTokenRepository.findByTokenHash(TokenDigests.sha256(newRefreshToken));
         assertThat(newEntity).isPresent();
         assertThat(newEntity.get().isRevoked()).isFalse();
 
@@ -127,7 +145,7 @@ public class AuthServiceIntegrationTest {
                 .andExpect(status().isNoContent());
 
         // Check DB: revoked == true
-        Optional<RefreshTokenEntity> e = refreshTokenRepository.findByToken(refreshToken);
+        Optional<RefreshTokenEntity> e = refreshTokenRepository.findByTokenHash(TokenDigests.sha256(refreshToken));
         assertThat(e).isPresent();
         assertThat(e.get().isRevoked()).isTrue();
     }
@@ -177,4 +195,241 @@ public class AuthServiceIntegrationTest {
                 .header("Authorization", "Bearer " + userAccess))
                 .andExpect(status().isForbidden());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testLogin_calibrationDisabled_keepsStoredHash() throws Exception {
+        // Stored with a cost other than the configured strength (10); without calibration it is left alone
+        UserEntity user = new UserEntity();
+        user.setUsername("noRehashUser");
+        user.setEmail("norehash@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        user.setRoleBits(Role.ROLE_USER.bit());
+        userRepository.save(user);
+
+        LoginRequest login = new LoginRequest();
+        login.setUsername("noRehashUser");
+        login.setPassword("password");
+
+        mvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(login)))
+                .andExpect(status().isOk());
+
+        String stored = userRepository.findByUsername("noRehashUser").orElseThrow().getPassword();
+        assertThat(stored).startsWith("$2a$04$");
+    }
+
+    @Test
+    public void testConcurrentRefresh_onlyOneRotationSucceeds() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("raceUser");
+        reg.setEmail("race@example.com");
+        reg.setPassword("password");
+        reg.setRoles(List.of("USER"));
+
+        String regResp = mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        RefreshTokenRequest rreq = new RefreshTokenRequest();
+        rreq.setRefreshToken(mapper.readTree(regResp).get("refreshToken").asText());
+        String body = mapper.writeValueAsString(rreq);
+
+        // Same token refreshed from several threads at once
+        int attempts = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(attempts);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < attempts; i++) {
+            statuses.add(pool.submit(() -> {
+                start.await();
+                return mvc.perform(post("/api/auth/refresh")
+                                .contentType(MediaType.APPLICATION_JSON)
+                                .content(body))
+                        .andReturn().getResponse().getStatus();
+            }));
+        }
+        start.countDown();
+
+        int succeeded = 0;
+        for (Future<Integer> status : statuses) {
+            if (status.get() == 200) {
+                succeeded++;
+            }
+        }
+        pool.shutdown();
+
+        assertThat(succeeded).isEqualTo(1);
+    }
+
+    @Test
+    public void testRevokeEndpoint_revokesAccessToken() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("accessRevoker");
+        reg.setEmail("access-revoker@example.com");
+        reg.setPassword("password");
+        reg.setRoles(List.of("USER"));
+
+        String regResp = mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String accessToken = mapper.readTree(regResp).get("accessToken").asText();
+
+        mvc.perform(get("/api/auth/me")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        // Revoke the access token itself, no body
+        mvc.perform(post("/api/auth/revoke")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+
+        mvc.perform(get("/api/auth/me")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testRevokeAll_revokesEverySessionOfTheUser() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("everywhereUser");
+        reg.setEmail("everywhere@example.com");
+        reg.setPassword("password");
+        reg.setRoles(List.of("USER"));
+
+        JsonNode first = mapper.readTree(mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        LoginRequest login = new LoginRequest();
+        login.setUsername("everywhereUser");
+        login.setPassword("password");
+        JsonNode second = mapper.readTree(mvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(login)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+
+        String accessToken = second.get("accessToken").asText();
+
+        // only service accounts may revoke other users' sessions
+        mvc.perform(post("/api/auth/admin/users/everywhereUser/revoke-all")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+
+        mvc.perform(post("/api/auth/revoke-all")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+
+        for (JsonNode session : List.of(first, second)) {
+            RefreshTokenRequest rreq = new RefreshTokenRequest();
+            rreq.setRefreshToken(session.get("refreshToken").asText());
+            mvc.perform(post("/api/auth/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(mapper.writeValueAsString(rreq)))
+                    .andExpect(status().isUnauthorized());
+        }
+
+        mvc.perform(get("/api/auth/me")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void testAdminRevokeAll_isNotOpenToSelfRegisteredAdmins() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("selfMadeAdmin");
+        reg.setEmail("selfmade@example.com");
+        reg.setPassword("password");
+        reg.setRoles(List.of("ADMIN"));
+
+        String accessToken = mapper.readTree(mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString())
+                .get("accessToken").asText();
+
+        // anyone can register as ADMIN, so ROLE_ADMIN must not be enough to log out other accounts
+        mvc.perform(post("/api/auth/admin/users/selfMadeAdmin/revoke-all")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isForbidden());
+
+        User admin = userPort.findByUsername("selfMadeAdmin").orElseThrow();
+        userPort.save(new User(admin.getId(), admin.getUsername(), admin.getEmail(), admin.getPassword(),
+                EnumSet.of(Role.ROLE_USER, Role.ROLE_SERVICE)));
+
+        mvc.perform(post("/api/auth/admin/users/selfMadeAdmin/revoke-all")
+                .header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void testIntrospect_reportsEachTokenInOrder() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("introspectUser");
+        reg.setEmail("introspect@example.com");
+        reg.setPassword("password");
+        reg.setRoles(List.of("USER"));
+
+        String accessToken = mapper.readTree(mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString())
+                .get("accessToken").asText();
+
+        String body = mapper.writeValueAsString(Map.of("tokens", List.of(accessToken, "not-a-jwt", accessToken)));
+
+        mvc.perform(post("/api/auth/introspect")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isUnauthorized());
+
+        // a plain user may not introspect other people's tokens
+        mvc.perform(post("/api/auth/introspect")
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(status().isForbidden());
+
+        // service accounts are provisioned out of band
+        User user = userPort.findByUsername("introspectUser").orElseThrow();
+        userPort.save(new User(user.getId(), user.getUsername(), user.getEmail(), user.getPassword(),
+                EnumSet.of(Role.ROLE_USER, Role.ROLE_SERVICE)));
+
+        mvc.perform(post("/api/auth/introspect")
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].active").value(true))
+                .andExpect(jsonPath("$[0].sub").value("introspectUser"))
+                .andExpect(jsonPath("$[0].roles[0]").value("ROLE_USER"))
+                .andExpect(jsonPath("$[0].exp").isNumber())
+                .andExpect(jsonPath("$[1].active").value(false))
+                .andExpect(jsonPath("$[1].sub").doesNotExist())
+                .andExpect(jsonPath("$[2].active").value(true));
+
+        mvc.perform(post("/api/auth/introspect")
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(Map.of("tokens", Collections.nCopies(1001, accessToken)))))
+                .andExpect(status().isBadRequest());
+
+        mvc.perform(post("/api/auth/introspect")
+                .header("Authorization", "Bearer " + accessToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"tokens\": []}"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,156 @@
+package org.zgo.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.User;
+import org.zgo.auth.domain.model.UserCredentials;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.persistence.adapter.CachingUserPersistenceAdapter;
+import org.zgo.auth.infrastructure.persistence.adapter.UserPersistenceAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CachingUserPersistenceAdapterTest {
+
+    private InMemoryUsers delegate;
+    private CachingUserPersistenceAdapter adapter;
+
+    @BeforeEach
+    public void setup() {
+        delegate = new InMemoryUsers();
+        adapter = new CachingUserPersistenceAdapter(delegate, new SecurityProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void changedUsernameAndEmail_evictTheStaleEntries() {
+        User saved = adapter.save(new User(null, "oldName", "old@example.com", "secret", Set.of(Role.ROLE_USER)));
+        assertThat(adapter.findByUsername("oldName")).isPresent();
+        assertThat(adapter.findByEmail("old@example.com")).isPresent();
+
+        adapter.save(new User(saved.getId(), "newName", "new@example.com", "secret", Set.of(Role.ROLE_USER)));
+
+        assertThat(adapter.findByUsername("oldName")).isEmpty();
+        assertThat(adapter.findByEmail("old@example.com")).isEmpty();
+        assertThat(adapter.findByUsername("newName")).map(User::getEmail).contains("new@example.com");
+        assertThat(adapter.findByEmail("new@example.com")).map(User::getUsername).contains("newName");
+    }
+
+    @Test
+    public void unchangedKeys_areServedFromTheCacheAfterSave() {
+        User saved = delegate.save(new User(null, "rehashed", "rehashed@example.com", "old-hash", Set.of(Role.ROLE_USER)));
+        adapter.findByUsername("rehashed");
+
+        saved.setPassword("new-hash");
+        adapter.save(saved);
+        int queries = delegate.queries.get();
+
+        assertThat(adapter.findByUsername("rehashed")).map(User::getPassword).contains("new-hash");
+        assertThat(adapter.findByEmail("rehashed@example.com")).map(User::getPassword).contains("new-hash");
+        assertThat(delegate.queries).hasValue(queries);
+    }
+
+    @Test
+    public void callersNeverShareTheCachedInstance() {
+        User saved = adapter.save(new User(null, "shared", "shared@example.com", "hash", Set.of(Role.ROLE_USER)));
+        saved.setPassword("changed-after-save");
+
+        User read = adapter.findByUsername("shared").orElseThrow();
+        assertThat(read.getPassword()).isEqualTo("hash");
+        read.setPassword("changed-but-not-saved");
+        read.getRoles().add(Role.ROLE_ADMIN);
+
+        assertThat(adapter.findByUsername("shared")).map(User::getPassword).contains("hash");
+        assertThat(adapter.findByEmail("shared@example.com")).map(User::getRoles).contains(Set.of(Role.ROLE_USER));
+        assertThat(adapter.findCredentialsByUsername("shared")).map(UserCredentials::password).contains("hash");
+    }
+
+    @Test
+    public void concurrentMisses_shareOneQuery() throws Exception {
+        delegate.save(new User(null, "popular", "popular@example.com", "secret", Set.of(Role.ROLE_USER)));
+        delegate.queries.set(0);
+        delegate.blockQueries = new CountDownLatch(1);
+
+        int callers = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Optional<User>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> adapter.findByUsername("popular")));
+            }
+            // let every caller reach the cache before the single query returns
+            Thread.sleep(200);
+            delegate.blockQueries.countDown();
+            for (Future<Optional<User>> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).map(User::getUsername).contains("popular");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(delegate.queries).hasValue(1);
+    }
+
+    /**
+     * Stands in for the JPA adapter; returns copies, as the real one maps a fresh entity on every call.
+     */
+    private static final class InMemoryUsers extends UserPersistenceAdapter {
+
+        private final Map<Long, User> users = new ConcurrentHashMap<>();
+        private final AtomicInteger ids = new AtomicInteger();
+        private final AtomicInteger queries = new AtomicInteger();
+        private volatile CountDownLatch blockQueries = new CountDownLatch(0);
+
+        InMemoryUsers() {
+            super(null, new SimpleMeterRegistry());
+        }
+
+        @Override
+        public User save(User user) {
+            User copy = copy(user);
+            if (copy.getId() == null) {
+                copy.setId((long) ids.incrementAndGet());
+            }
+            users.put(copy.getId(), copy);
+            return copy(copy);
+        }
+
+        @Override
+        public Optional<User> findByUsername(String username) {
+            return query(u -> u.getUsername().equals(username));
+        }
+
+        @Override
+        public Optional<User> findByEmail(String email) {
+            return query(u -> u.getEmail().equals(email));
+        }
+
+        private Optional<User> query(Predicate<User> filter) {
+            queries.incrementAndGet();
+            try {
+                blockQueries.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return users.values().stream().filter(filter).findFirst().map(InMemoryUsers::copy);
+        }
+
+        private static User copy(User u) {
+            return new User(u.getId(), u.getUsername(), u.getEmail(), u.getPassword(), u.getRoles());
+        }
+    }
+}
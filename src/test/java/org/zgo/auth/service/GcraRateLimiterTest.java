@@ -0,0 +1,42 @@
+package org.zgo.auth.service;
+
+import org.junit.jupiter.api.Test;
+import org.zgo.auth.infrastructure.service.ratelimit.GcraRateLimiter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class GcraRateLimiterTest {
+
+    @Test
+    public void emptyBucket_refusesUntilRefilled() {
+        GcraRateLimiter limiter = new GcraRateLimiter(2, 1000, 1024);
+        long now = System.currentTimeMillis();
+
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+        assertThat(limiter.tryAcquire("alice", now)).isZero();
+        assertThat(limiter.tryAcquire("alice", now)).isPositive();
+        assertThat(limiter.tryAcquire("bob", now)).isZero();
+
+        assertThat(limiter.tryAcquire("alice", now + 500)).isZero();
+    }
+
+    @Test
+    public void throttledBuckets_areNeverEvictedByNewKeys() {
+        // 16 slots for 200 keys: most keys find every probed slot taken
+        GcraRateLimiter limiter = new GcraRateLimiter(1, 60000, 8);
+        long now = System.currentTimeMillis();
+
+        int allowed = 0;
+        for (int i = 0; i < 200; i++) {
+            if (limiter.tryAcquire("key-" + i, now) == 0) {
+                allowed++;
+            }
+        }
+        assertThat(allowed).isBetween(1, 16);
+
+        // an evicted bucket would give its key a fresh token
+        for (int i = 0; i < 200; i++) {
+            assertThat(limiter.tryAcquire("key-" + i, now + 1)).isPositive();
+        }
+    }
+}
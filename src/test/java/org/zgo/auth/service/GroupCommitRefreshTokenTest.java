@@ -0,0 +1,113 @@
+package org.zgo.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.zgo.auth.application.port.in.RefreshTokenUseCase;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.zgo.auth.application.port.out.RefreshTokenPersistencePort;
+import org.zgo.auth.domain.exception.custom.ServiceUnavailableException;
+import org.zgo.auth.domain.model.RefreshToken;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.persistence.adapter.GroupCommitRefreshTokenPersistenceAdapter;
+import org.zgo.auth.infrastructure.persistence.adapter.RefreshTokenPersistenceAdapter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest(properties = "security.refresh-token-group-commit.enabled=true")
+public class GroupCommitRefreshTokenTest {
+
+    @Autowired
+    private RefreshTokenUseCase refreshTokenUseCase;
+
+    @Autowired
+    private RefreshTokenPersistencePort persistence;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void concurrentWrites_areDurableWhenTheyReturn() throws Exception {
+        assertThat(persistence).isInstanceOf(GroupCommitRefreshTokenPersistenceAdapter.class);
+
+        List<RefreshToken> created = runConcurrently(32, () -> refreshTokenUseCase.createRefreshToken("groupUser"));
+
+        for (RefreshToken rt : created) {
+            assertThat(rt.getId()).isNotNull();
+            assertThat(refreshTokenUseCase.validateRefreshToken(rt.getToken())).isTrue();
+        }
+    }
+
+    @Test
+    public void concurrentRotation_onlyOneSucceeds() throws Exception {
+        String token = refreshTokenUseCase.createRefreshToken("groupRaceUser").getToken();
+
+        // the competing rotations can land in the same batch
+        List<Optional<RefreshToken>> results = runConcurrently(16, () -> refreshTokenUseCase.rotateRefreshToken(token));
+
+        List<RefreshToken> rotated = results.stream().flatMap(Optional::stream).toList();
+        assertThat(rotated).hasSize(1);
+        assertThat(rotated.get(0).getUsername()).isEqualTo("groupRaceUser");
+        assertThat(refreshTokenUseCase.validateRefreshToken(token)).isFalse();
+        assertThat(refreshTokenUseCase.validateRefreshToken(rotated.get(0).getToken())).isTrue();
+    }
+
+    @Test
+    public void stuckWriter_failsTheCallerWithinTheTimeout() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RefreshTokenPersistenceAdapter delegate = mock(RefreshTokenPersistenceAdapter.class);
+        when(delegate.save(any())).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        });
+        SecurityProperties properties = new SecurityProperties();
+        properties.getRefreshTokenGroupCommit().setTimeout(200L);
+        GroupCommitRefreshTokenPersistenceAdapter adapter = new GroupCommitRefreshTokenPersistenceAdapter(
+                delegate, transactionManager, properties, new SimpleMeterRegistry());
+        try {
+            RefreshToken token = new RefreshToken(null, "stuck", "stuckUser", Instant.now().plusSeconds(60), false);
+            assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                    assertThatThrownBy(() -> adapter.save(token)).isInstanceOf(ServiceUnavailableException.class));
+        } finally {
+            release.countDown();
+            adapter.close();
+        }
+    }
+
+    private static <T> List<T> runConcurrently(int threads, Callable<T> task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<T>> futures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                return task.call();
+            }));
+        }
+        start.countDown();
+        List<T> results = new ArrayList<>();
+        for (Future<T> future : futures) {
+            results.add(future.get());
+        }
+        pool.shutdown();
+        return results;
+    }
+}
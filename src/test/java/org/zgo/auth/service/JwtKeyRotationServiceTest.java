@@ -0,0 +1,180 @@
+package org.zgo.auth.service;
+
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.key.JwtKeyRing;
+import org.zgo.auth.infrastructure.service.key.JwtKeyRotationService;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JwtKeyRotationServiceTest {
+
+    private static final Duration INTERVAL = Duration.ofDays(1);
+    private static final Duration CHECK_INTERVAL = Duration.ofMinutes(1);
+    private static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
+    private static final Duration ACCESS_TOKEN_EXPIRATION = Duration.ofMinutes(15);
+    // max(check-interval, jwks-max-age)
+    private static final Duration LEAD = JWKS_MAX_AGE;
+    // overlap (at least the access token lifetime) + check-interval
+    private static final Duration RETENTION = ACCESS_TOKEN_EXPIRATION.plus(CHECK_INTERVAL);
+
+    @TempDir
+    private Path keystore;
+
+    private final MutableClock clock = new MutableClock(Instant.parse("2026-01-01T00:00:00Z"));
+    private JwtKeyRing keyRing;
+    private JwtKeyRotationService rotation;
+    private String configuredKid;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        SecurityProperties properties = new SecurityProperties();
+        SecurityProperties.Jwt jwt = properties.getJwt();
+        jwt.setAccessTokenExpiration(ACCESS_TOKEN_EXPIRATION.toMillis());
+        jwt.setJwksMaxAge(JWKS_MAX_AGE.toMillis());
+        jwt.getRotation().setEnabled(true);
+        jwt.getRotation().setInterval(INTERVAL.toMillis());
+        jwt.getRotation().setCheckInterval(CHECK_INTERVAL.toMillis());
+        jwt.getRotation().setKeystoreDir(keystore.toString());
+
+        keyRing = new JwtKeyRing(properties, new DefaultResourceLoader());
+        keyRing.init();
+        configuredKid = keyRing.current().signingKey().kid();
+        rotation = new JwtKeyRotationService(keyRing, properties, clock);
+        rotation.init();
+    }
+
+    @Test
+    public void generatedKey_verifiesBeforeItSigns() {
+        String first = newestStoredKid();
+        assertThat(keyRing.current().signingKey().kid()).isEqualTo(configuredKid);
+        assertThat(keyRing.current().verificationKey(first)).isNotNull();
+
+        check(LEAD.minusMillis(1));
+        assertThat(keyRing.current().signingKey().kid()).isEqualTo(configuredKid);
+
+        check(LEAD);
+        assertThat(keyRing.current().signingKey().kid()).isEqualTo(first);
+    }
+
+    @Test
+    public void configuredKey_keepsVerifyingAfterTheFirstRotation() {
+        check(LEAD);
+        assertThat(keyRing.current().signingKey().kid()).isNotEqualTo(configuredKid);
+
+        check(LEAD.plus(RETENTION).minusMillis(1));
+        assertThat(keyRing.current().verificationKey(configuredKid)).isNotNull();
+
+        check(LEAD.plus(RETENTION));
+        assertThat(keyRing.current().verificationKey(configuredKid)).isNull();
+    }
+
+    @Test
+    public void keyIsPromotedAtTheInterval_andTheReplacedKeyVerifiesForTheRetention() {
+        check(LEAD);
+        String first = keyRing.current().signingKey().kid();
+
+        // the successor is published one lead before the interval ends
+        check(INTERVAL.minus(LEAD));
+        String second = newestStoredKid();
+        assertThat(second).isNotEqualTo(first);
+        assertThat(keyRing.current().signingKey().kid()).isEqualTo(first);
+        assertThat(keyRing.current().verificationKey(second)).isNotNull();
+
+        check(INTERVAL);
+        assertThat(keyRing.current().signingKey().kid()).isEqualTo(second);
+        assertThat(keyRing.current().verificationKey(first)).isNotNull();
+
+        check(INTERVAL.plus(RETENTION).minusMillis(1));
+        assertThat(keyRing.current().verificationKey(first)).isNotNull();
+        assertThat(storedKids()).contains(first);
+
+        // past the retention: dropped from the ring and deleted from the keystore
+        check(INTERVAL.plus(RETENTION));
+        assertThat(keyRing.current().verificationKey(first)).isNull();
+        assertThat(storedKids()).containsExactly(second);
+    }
+
+    @Test
+    public void intervalNoLongerThanTheLead_isRejectedAtStartup() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getJwt().getRotation().setEnabled(true);
+        properties.getJwt().getRotation().setInterval(JWKS_MAX_AGE.toMillis());
+
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            assertThat(validator.validate(properties))
+                    .extracting(v -> v.getPropertyPath().toString())
+                    .containsExactly("jwt.rotationIntervalLongerThanPublicationLead");
+
+            properties.getJwt().getRotation().setInterval(JWKS_MAX_AGE.plusMillis(1).toMillis());
+            assertThat(validator.validate(properties)).isEmpty();
+        }
+    }
+
+    private void check(Duration sinceStart) {
+        clock.set(Instant.parse("2026-01-01T00:00:00Z").plus(sinceStart));
+        rotation.rotateIfDue();
+    }
+
+    private String newestStoredKid() {
+        return storedKids().stream().max(String::compareTo).orElseThrow();
+    }
+
+    private List<String> storedKids() {
+        try (Stream<Path> files = Files.list(keystore)) {
+            return files.map(f -> f.getFileName().toString())
+                    .filter(name -> name.endsWith(".pub.pem"))
+                    .map(name -> name.substring(0, name.indexOf('.')))
+                    .sorted()
+                    .toList();
+        } catch (IOException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private volatile Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void set(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.zgo.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
+import org.zgo.auth.infrastructure.web.dto.request.LoginRequest;
+import org.zgo.auth.infrastructure.web.dto.request.RefreshTokenRequest;
+import org.zgo.auth.infrastructure.web.dto.request.RegisterRequest;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards the number of statements per login and per refresh. The user cache is off so every user lookup reaches the database.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.user-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+public class LoginQueryCountTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void login_loadsCredentialsOnce() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("countUser");
+        reg.setEmail("countUser@example.com");
+        reg.setPassword("secret");
+        reg.setRoles(List.of("USER"));
+        mvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk());
+
+        LoginRequest login = new LoginRequest();
+        login.setUsername("countUser");
+        login.setPassword("secret");
+
+        statistics.clear();
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(login)))
+                .andExpect(status().isOk());
+
+        // one credentials projection: no entity, no roles collection; the refresh token insert is not a query
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getCollectionLoadCount()).isZero();
+    }
+
+    @Test
+    public void refresh_statementCount() throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername("refreshCountUser");
+        reg.setEmail("refreshCountUser@example.com");
+        reg.setPassword("secret");
+        reg.setRoles(List.of("USER"));
+        String response = mvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(reg)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        RefreshTokenRequest refresh = new RefreshTokenRequest();
+        refresh.setRefreshToken(mapper.readTree(response).get("refreshToken").asText());
+
+        statistics.clear();
+        mvc.perform(post("/api/auth/refresh")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(refresh)))
+                .andExpect(status().isOk());
+
+        // revoking UPDATE, username SELECT, credentials SELECT for the new access token, refresh token INSERT
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+        assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
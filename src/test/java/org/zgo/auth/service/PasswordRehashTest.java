@@ -0,0 +1,73 @@
+package org.zgo.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.infrastructure.persistence.entity.UserEntity;
+import org.zgo.auth.infrastructure.persistence.repository.RefreshTokenRepository;
+import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
+import org.zgo.auth.infrastructure.web.dto.request.LoginRequest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * With cost calibration enabled, a hash stored with another cost is rehashed on the next successful login.
+ * The strength range is pinned to a single cost so that calibration is deterministic.
+ */
+@SpringBootTest(properties = {
+        "security.password-cost-calibration.enabled=true",
+        "security.password-cost-calibration.min-strength=5",
+        "security.password-cost-calibration.max-strength=5"
+})
+@AutoConfigureMockMvc
+public class PasswordRehashTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setup() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void login_rehashesPasswordWithDifferentCost() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setUsername("rehashUser");
+        user.setEmail("rehash@example.com");
+        user.setPassword(new BCryptPasswordEncoder(4).encode("password"));
+        user.setRoleBits(Role.ROLE_USER.bit());
+        userRepository.save(user);
+
+        LoginRequest login = new LoginRequest();
+        login.setUsername("rehashUser");
+        login.setPassword("password");
+
+        mvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(mapper.writeValueAsString(login)))
+                .andExpect(status().isOk());
+
+        String stored = userRepository.findByUsername("rehashUser").orElseThrow().getPassword();
+        assertThat(stored).startsWith("$2a$05$");
+        assertThat(new BCryptPasswordEncoder().matches("password", stored)).isTrue();
+    }
+}
@@ -0,0 +1,61 @@
+package org.zgo.auth.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.zgo.auth.infrastructure.persistence.entity.RefreshTokenEntity;
+import org.zgo.auth.infrastructure.persistence.repository.RefreshTokenRepository;
+import org.zgo.auth.infrastructure.service.RefreshTokenPurgeJob;
+import org.zgo.auth.infrastructure.util.TokenDigests;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "security.refresh-token-purge.batch-size=2")
+public class RefreshTokenPurgeJobTest {
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private RefreshTokenPurgeJob purgeJob;
+
+    @BeforeEach
+    public void setup() {
+        refreshTokenRepository.deleteAll();
+    }
+
+    @Test
+    public void purge_deletesExpiredAndRevokedPastRetention() {
+        Instant now = Instant.now();
+        save("expired", now.minus(2, ChronoUnit.DAYS), false, null);
+        save("expired-2", now.minus(3, ChronoUnit.DAYS), false, null);
+        save("revoked", now.plus(20, ChronoUnit.DAYS), true, now.minus(2, ChronoUnit.DAYS));
+        save("revoked-2", now.plus(10, ChronoUnit.DAYS), true, now.minus(5, ChronoUnit.DAYS));
+        // matches both the expired and the revoked query; deleted once
+        save("revoked-and-expired", now.minus(2, ChronoUnit.DAYS), true, now.minus(3, ChronoUnit.DAYS));
+        // within the one-day retention: kept
+        save("recently-expired", now.minus(1, ChronoUnit.HOURS), false, null);
+        save("recently-revoked", now.plus(20, ChronoUnit.DAYS), true, now.minus(1, ChronoUnit.HOURS));
+        save("live", now.plus(20, ChronoUnit.DAYS), false, null);
+
+        purgeJob.purge();
+
+        assertThat(refreshTokenRepository.findAll())
+                .extracting(RefreshTokenEntity::getUsername)
+                .containsExactlyInAnyOrder("recently-expired", "recently-revoked", "live");
+    }
+
+    private void save(String name, Instant expiresAt, boolean revoked, Instant revokedAt) {
+        RefreshTokenEntity e = new RefreshTokenEntity();
+        e.setTokenHash(TokenDigests.sha256(name));
+        e.setUsername(name);
+        e.setExpiresAt(expiresAt);
+        e.setRevoked(revoked);
+        e.setRevokedAt(revokedAt);
+        refreshTokenRepository.save(e);
+    }
+}
@@ -0,0 +1,73 @@
+package org.zgo.auth.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
+import org.zgo.auth.infrastructure.service.JwtService;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * In STATELESS mode the principal comes from the token alone: the user need not exist and no query runs.
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "security.authentication-mode=stateless",
+        "security.user-cache.enabled=false"
+})
+@AutoConfigureMockMvc
+public class StatelessAuthenticationTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    public void authoritiesComeFromTheRolesClaim_withoutQueries() throws Exception {
+        // neither user exists in the database
+        String adminToken = token("statelessAdmin", "ADMIN");
+        String userToken = token("statelessUser", "USER");
+
+        statistics.clear();
+        mvc.perform(get("/api/auth/admin").header("Authorization", "Bearer " + adminToken))
+                .andExpect(status().isOk());
+        mvc.perform(get("/api/auth/admin").header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isForbidden());
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    private String token(String username, String role) {
+        return jwtService.generateToken(User.withUsername(username).password("unused").roles(role).build(), Map.of());
+    }
+}
@@ -0,0 +1,90 @@
+package org.zgo.auth.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.zgo.auth.domain.exception.custom.ServiceUnavailableException;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.AccessTokenDenylist;
+import org.zgo.auth.infrastructure.service.JwtService;
+import org.zgo.auth.infrastructure.service.TokenIntrospector;
+import org.zgo.auth.infrastructure.service.VerifiedToken;
+import org.zgo.auth.infrastructure.service.VerifiedTokenCache;
+import org.zgo.auth.infrastructure.service.key.JwtKeyRing;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+public class TokenIntrospectorTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private TokenIntrospector introspector;
+
+    @BeforeEach
+    public void setup() {
+        SecurityProperties properties = new SecurityProperties();
+        properties.getIntrospection().setThreads(1);
+        properties.getIntrospection().setQueueCapacity(1);
+        properties.getIntrospection().setTimeout(200L);
+        JwtKeyRing keyRing = new JwtKeyRing(properties, new DefaultResourceLoader());
+        keyRing.init();
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        JwtService jwtService = new BlockingJwtService(properties, keyRing, registry);
+        introspector = new TokenIntrospector(jwtService, new AccessTokenDenylist(properties, registry), properties, registry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        introspector.close();
+    }
+
+    @Test
+    public void slowVerification_failsTheRequestInsteadOfBlockingIt() {
+        List<Optional<VerifiedToken>> results = new ArrayList<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThatThrownBy(() -> introspector.introspect(List.of("a", "b"), results::add))
+                        .isInstanceOf(ServiceUnavailableException.class));
+        assertThat(results).isEmpty();
+    }
+
+    @Test
+    public void afterShutdown_requestsAreRejectedInsteadOfHanging() {
+        release.countDown();
+        introspector.close();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () ->
+                assertThatThrownBy(() -> introspector.introspect(List.of("a", "b", "c"), token -> { }))
+                        .isInstanceOf(ServiceUnavailableException.class));
+    }
+
+    /**
+     * Holds every verification until the test releases it.
+     */
+    private final class BlockingJwtService extends JwtService {
+
+        BlockingJwtService(SecurityProperties properties, JwtKeyRing keyRing, SimpleMeterRegistry registry) {
+            super(properties, keyRing, new VerifiedTokenCache(properties, registry), registry);
+        }
+
+        @Override
+        public VerifiedToken verify(String token) {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            return new VerifiedToken(token, "alice", List.of("ROLE_USER"), Instant.now(), Instant.now().plusSeconds(60));
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.zgo.auth.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.zgo.auth.domain.exception.custom.UserAlreadyExistsException;
+import org.zgo.auth.domain.model.Role;
+import org.zgo.auth.domain.model.User;
+import org.zgo.auth.infrastructure.persistence.adapter.UserPersistenceAdapter;
+import org.zgo.auth.infrastructure.persistence.repository.RefreshTokenRepository;
+import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
+import org.zgo.auth.infrastructure.web.dto.request.RegisterRequest;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doReturn;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A registration that passes the existence check but loses the insert to a concurrent one still gets a 409.
+ * The race is forced by making the existence check report no conflict.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class UserRegistrationRaceTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockitoSpyBean
+    private UserPersistenceAdapter userPersistenceAdapter;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    @BeforeEach
+    public void setup() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void uniqueKeyViolationOnInsert_isConflict() throws Exception {
+        register("raceUser", "race@example.com").andExpect(status().isOk());
+
+        doReturn(Optional.empty()).when(userPersistenceAdapter).findConflict(any(), any());
+        register("raceUser", "other@example.com")
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("username or email already exists"));
+        register("otherUser", "race@example.com")
+                .andExpect(status().isConflict());
+    }
+
+    @Test
+    public void otherIntegrityViolations_areNotReportedAsDuplicates() {
+        User noPassword = new User(null, "noPassword", "nopassword@example.com", null, Set.of(Role.ROLE_USER));
+
+        assertThatThrownBy(() -> userPersistenceAdapter.save(noPassword))
+                .isNotInstanceOf(UserAlreadyExistsException.class);
+    }
+
+    private ResultActions register(String username, String email) throws Exception {
+        RegisterRequest reg = new RegisterRequest();
+        reg.setUsername(username);
+        reg.setEmail(email);
+        reg.setPassword("secret");
+        reg.setRoles(List.of("USER"));
+        return mvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(reg)));
+    }
+}
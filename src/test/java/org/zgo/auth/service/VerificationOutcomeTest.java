@@ -0,0 +1,60 @@
+package org.zgo.auth.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.web.servlet.MockMvc;
+import org.zgo.auth.infrastructure.persistence.repository.UserRepository;
+import org.zgo.auth.infrastructure.service.JwtService;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Each bearer token is counted under exactly one auth.jwt.verification outcome.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+public class VerificationOutcomeTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    public void tokenOfAMissingUser_isCountedAsUserMissingOnly() throws Exception {
+        String token = jwtService.generateToken(User.withUsername("ghost").password("unused").roles("USER").build(), Map.of());
+        double valid = count("valid");
+        double userMissing = count("user_missing");
+
+        mvc.perform(get("/api/auth/me").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+
+        assertThat(count("valid")).isEqualTo(valid);
+        assertThat(count("user_missing")).isEqualTo(userMissing + 1);
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("auth.jwt.verification").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,125 @@
+package org.zgo.auth.service;
+
+import io.jsonwebtoken.JwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.security.core.userdetails.User;
+import org.zgo.auth.infrastructure.config.properties.SecurityProperties;
+import org.zgo.auth.infrastructure.service.JwtService;
+import org.zgo.auth.infrastructure.service.VerifiedToken;
+import org.zgo.auth.infrastructure.service.VerifiedTokenCache;
+import org.zgo.auth.infrastructure.service.key.JwtKeyRing;
+import org.zgo.auth.infrastructure.service.key.JwtKeySet;
+import org.zgo.auth.infrastructure.service.key.SigningKey;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class VerifiedTokenCacheTest {
+
+    private SecurityProperties properties;
+    private VerifiedTokenCache cache;
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        properties = new SecurityProperties();
+        properties.getJwt().getVerificationCache().setEnabled(true);
+        cache = new VerifiedTokenCache(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    public void secondLookup_isServedFromTheCache() {
+        VerifiedToken first = cache.get("token", token -> verified(Instant.now().plusSeconds(60)));
+        VerifiedToken second = cache.get("token", token -> verified(Instant.now().plusSeconds(60)));
+
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+
+        cache.get("other-token", token -> verified(Instant.now().plusSeconds(60)));
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    public void entry_isNotServedAfterTheTokenExpires() throws InterruptedException {
+        Instant exp = Instant.now().plusMillis(200);
+        cache.get("token", token -> verified(exp));
+
+        Thread.sleep(300);
+        cache.get("token", token -> verified(Instant.now().plusSeconds(60)));
+
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    public void failedVerification_isNeverCached() {
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> cache.get("bad-token", token -> {
+                verifications.incrementAndGet();
+                throw new JwtException("invalid");
+            })).isInstanceOf(JwtException.class);
+        }
+        assertThat(verifications).hasValue(2);
+    }
+
+    @Test
+    public void tamperedToken_isRejectedEvenWhenTheOriginalIsCached() {
+        JwtKeyRing keyRing = keyRing();
+        JwtService jwtService = jwtService(keyRing);
+        String token = jwtService.generateToken(user(), Map.of());
+        assertThat(jwtService.verify(token).subject()).isEqualTo("alice");
+
+        int signature = token.lastIndexOf('.') + 5;
+        char replacement = token.charAt(signature) == 'A' ? 'B' : 'A';
+        String tampered = token.substring(0, signature) + replacement + token.substring(signature + 1);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> jwtService.verify(tampered)).isInstanceOf(JwtException.class);
+        }
+        assertThat(jwtService.verify(token).subject()).isEqualTo("alice");
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void replacingTheKeySet_dropsResultsOfRemovedKeys() {
+        JwtKeyRing keyRing = keyRing();
+        JwtService jwtService = jwtService(keyRing);
+        String token = jwtService.generateToken(user(), Map.of());
+        jwtService.verify(token);
+
+        SigningKey next = SigningKey.generate("next", properties.getJwt().getAlgorithm());
+        keyRing.replace(new JwtKeySet(next, List.of()));
+
+        assertThatThrownBy(() -> jwtService.verify(token)).isInstanceOf(JwtException.class);
+    }
+
+    private VerifiedToken verified(Instant expiresAt) {
+        verifications.incrementAndGet();
+        return new VerifiedToken("jti", "alice", List.of("ROLE_USER"), Instant.now(), expiresAt);
+    }
+
+    private JwtKeyRing keyRing() {
+        JwtKeyRing keyRing = new JwtKeyRing(properties, new DefaultResourceLoader());
+        keyRing.init();
+        return keyRing;
+    }
+
+    private JwtService jwtService(JwtKeyRing keyRing) {
+        JwtService jwtService = new JwtService(properties, keyRing, cache, new SimpleMeterRegistry());
+        jwtService.init();
+        return jwtService;
+    }
+
+    private static User user() {
+        return (User) User.withUsername("alice").password("unused").roles("USER").build();
+    }
+}